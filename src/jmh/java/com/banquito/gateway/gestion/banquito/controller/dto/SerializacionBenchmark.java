@@ -0,0 +1,87 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int tamanioPagina;
+
+    private ObjectMapper objectMapper;
+    private Page<ComercioDTO> paginaComercios;
+    private Page<PosComercioDTO> paginaPos;
+
+    @Setup
+    public void preparar() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ComercioDTO> comercios = new ArrayList<>(this.tamanioPagina);
+        List<PosComercioDTO> posComercios = new ArrayList<>(this.tamanioPagina);
+        for (int i = 0; i < this.tamanioPagina; i++) {
+            ComercioDTO comercio = new ComercioDTO();
+            comercio.setCodigoComercio(String.format("COM%06d", i));
+            comercio.setCodigoInterno("INT001");
+            comercio.setRuc("1790012345001");
+            comercio.setRazonSocial("Empresa XYZ S.A.");
+            comercio.setNombreComercial("XYZ Store " + i);
+            comercio.setFechaCreacion(ahora);
+            comercio.setCodigoComision(1);
+            comercio.setEstado("ACT");
+            comercio.setSwiftBanco("BOFAUS3N");
+            comercio.setCuentaIban("ES9121000418450200051332");
+            comercio.setFechaActivacion(ahora);
+            comercios.add(comercio);
+
+            PosComercioDTO pos = new PosComercioDTO();
+            pos.setCodigoPos(String.format("POS%06d", i));
+            pos.setModelo("VX520");
+            pos.setCodigoComercio(comercio.getCodigoComercio());
+            pos.setDireccionMac("00:1B:44:11:3A:B7");
+            pos.setEstado("ACT");
+            pos.setFechaActivacion(ahora);
+            pos.setUltimoUso(ahora);
+            posComercios.add(pos);
+        }
+        PageRequest pagina = PageRequest.of(0, this.tamanioPagina);
+        this.paginaComercios = new PageImpl<>(comercios, pagina, 1_000_000L);
+        this.paginaPos = new PageImpl<>(posComercios, pagina, 1_000_000L);
+    }
+
+    @Benchmark
+    public byte[] paginaComercios() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.paginaComercios);
+    }
+
+    @Benchmark
+    public byte[] paginaPosComercios() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.paginaPos);
+    }
+}
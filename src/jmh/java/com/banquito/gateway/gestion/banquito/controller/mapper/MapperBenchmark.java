@@ -0,0 +1,90 @@
+package com.banquito.gateway.gestion.banquito.controller.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ComercioMapper comercioMapper = new ComercioMapper();
+    private final PosComercioMapper posComercioMapper = new PosComercioMapper();
+
+    private Comercio comercio;
+    private ComercioDTO comercioDTO;
+    private PosComercio posComercio;
+    private PosComercioDTO posComercioDTO;
+
+    @Setup
+    public void preparar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        this.comercio = new Comercio("COM001");
+        this.comercio.setCodigoInterno("INT001");
+        this.comercio.setRuc("1790012345001");
+        this.comercio.setRazonSocial("Empresa XYZ S.A.");
+        this.comercio.setNombreComercial("XYZ Store");
+        this.comercio.setFechaCreacion(ahora);
+        this.comercio.setCodigoComision(1);
+        this.comercio.setEstado("ACT");
+        this.comercio.setSwiftBanco("BOFAUS3N");
+        this.comercio.setCuentaIban("ES9121000418450200051332");
+        this.comercio.setFechaActivacion(ahora);
+
+        this.posComercio = new PosComercio("POS001");
+        this.posComercio.setModelo("VX520");
+        this.posComercio.setComercio(this.comercio);
+        this.posComercio.setDireccionMac("00:1B:44:11:3A:B7");
+        this.posComercio.setEstado("ACT");
+        this.posComercio.setFechaActivacion(ahora);
+        this.posComercio.setUltimoUso(ahora);
+
+        this.comercioDTO = this.comercioMapper.toDTO(this.comercio);
+        this.posComercioDTO = this.posComercioMapper.toDTO(this.posComercio);
+    }
+
+    @Benchmark
+    public ComercioDTO comercioToDTO() {
+        return this.comercioMapper.toDTO(this.comercio);
+    }
+
+    @Benchmark
+    public Comercio comercioToModel() {
+        return this.comercioMapper.toModel(this.comercioDTO);
+    }
+
+    @Benchmark
+    public ComercioInfoDTO comercioToInfoDTO() {
+        return this.comercioMapper.toInfoDTO(this.comercio);
+    }
+
+    @Benchmark
+    public PosComercioDTO posComercioToDTO() {
+        return this.posComercioMapper.toDTO(this.posComercio);
+    }
+
+    @Benchmark
+    public PosComercio posComercioToModel() {
+        return this.posComercioMapper.toModel(this.posComercioDTO);
+    }
+}
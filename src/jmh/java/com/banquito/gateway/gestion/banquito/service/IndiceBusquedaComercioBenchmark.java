@@ -0,0 +1,83 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceBusquedaComercioBenchmark {
+
+    private static final String[] GIROS = {
+        "Ferretería", "Farmacia", "Panadería", "Óptica", "Librería", "Papelería", "Restaurante", "Cafetería",
+        "Minimarket", "Peluquería", "Lavandería", "Floristería", "Joyería", "Zapatería", "Mueblería", "Licorería"
+    };
+    private static final String[] APELLIDOS = {
+        "Andrade", "Benítez", "Cevallos", "Delgado", "Espinoza", "Figueroa", "Guerrero", "Herrera", "Iturralde",
+        "Jaramillo", "Kuffo", "León", "Mora", "Naranjo", "Ortega", "Paredes", "Quintero", "Rosero", "Salazar",
+        "Torres", "Ubidia", "Vásquez", "Yépez", "Zambrano"
+    };
+    private static final int CONSULTAS = 1024;
+    private static final int PAGINA = 11;
+
+    @Param({"20000", "1000000"})
+    private int comercios;
+
+    private IndiceBusquedaComercio indice;
+    private String[] selectivas;
+    private String[] sinInterseccion;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        this.indice = new IndiceBusquedaComercio(null, null, 2_000, new SimpleMeterRegistry());
+        Random aleatorio = new Random(17);
+        for (int i = 0; i < this.comercios; i++) {
+            this.indice.indexar(String.format("C%07d", i),
+                    GIROS[aleatorio.nextInt(GIROS.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " " + i,
+                    APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)]
+                            + " Cía. Ltda.");
+        }
+
+        this.selectivas = new String[CONSULTAS];
+        this.sinInterseccion = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            this.selectivas[i] = GIROS[aleatorio.nextInt(GIROS.length)].substring(0, 4) + " "
+                    + aleatorio.nextInt(this.comercios);
+            int giro = aleatorio.nextInt(GIROS.length);
+            this.sinInterseccion[i] = GIROS[giro] + " " + GIROS[(giro + 1) % GIROS.length];
+        }
+    }
+
+    @Benchmark
+    public IndiceBusquedaComercio.Resultado terminoSelectivo() {
+        return this.indice.buscar(this.selectivas[this.siguiente++ & (CONSULTAS - 1)], null, PAGINA);
+    }
+
+    @Benchmark
+    public IndiceBusquedaComercio.Resultado prefijoFrecuente() {
+        return this.indice.buscar(APELLIDOS[this.siguiente++ % APELLIDOS.length].substring(0, 2), null, PAGINA);
+    }
+
+    @Benchmark
+    public IndiceBusquedaComercio.Resultado terminosSinInterseccion() {
+        return this.indice.buscar(this.sinInterseccion[this.siguiente++ & (CONSULTAS - 1)], null, PAGINA);
+    }
+}
@@ -0,0 +1,110 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InstantaneaPosActivosBenchmark {
+
+    private static final int POS_POR_COMERCIO = 10;
+    private static final int CONSULTAS = 4096;
+
+    @Param({"1000000"})
+    private int entradas;
+
+    @Param({"instantanea", "mapa"})
+    private String estructura;
+
+    private InstantaneaPosActivos instantanea;
+    private Map<String, ComercioInfoDTO> mapa;
+    private String[] consultas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        long antes = memoriaUsada();
+        if ("instantanea".equals(this.estructura)) {
+            InstantaneaPosActivos.Constructor constructor = new InstantaneaPosActivos.Constructor();
+            for (int i = 0; i < this.entradas / POS_POR_COMERCIO; i++) {
+                constructor.agregarComercio(comercio(i));
+            }
+            for (int i = 0; i < this.entradas; i++) {
+                constructor.agregarPos(codigoPos(i), codigoComercio(i / POS_POR_COMERCIO));
+            }
+            this.instantanea = constructor.construir();
+        } else {
+            ComercioInfoDTO[] comercios = new ComercioInfoDTO[this.entradas / POS_POR_COMERCIO];
+            for (int i = 0; i < comercios.length; i++) {
+                comercios[i] = comercio(i);
+            }
+            this.mapa = new HashMap<>();
+            for (int i = 0; i < this.entradas; i++) {
+                this.mapa.put(codigoPos(i), comercios[i / POS_POR_COMERCIO]);
+            }
+        }
+        long retenidos = memoriaUsada() - antes;
+        System.out.printf("%n%s: %d POS, %.1f bytes retenidos por POS%s%n", this.estructura, this.entradas,
+                (double) retenidos / this.entradas,
+                this.instantanea != null
+                        ? String.format(" (estimado %.1f)", (double) this.instantanea.bytesEstimados() / this.entradas)
+                        : "");
+
+        this.consultas = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            this.consultas[i] = codigoPos(ThreadLocalRandom.current().nextInt(this.entradas));
+        }
+    }
+
+    @Benchmark
+    public ComercioInfoDTO buscar() {
+        String codigoPos = this.consultas[this.siguiente++ & (CONSULTAS - 1)];
+        return this.instantanea != null ? this.instantanea.buscar(codigoPos) : this.mapa.get(codigoPos);
+    }
+
+    private static ComercioInfoDTO comercio(int i) {
+        ComercioInfoDTO info = new ComercioInfoDTO();
+        info.setCodigo_comercio(codigoComercio(i));
+        info.setNombre_comercio("Tienda " + i);
+        info.setSwift_banco(new String("BOFAUS3N"));
+        info.setCuenta_iban("ES91" + String.format("%020d", i));
+        info.setEstado("ACTIVO");
+        return info;
+    }
+
+    private static String codigoComercio(int i) {
+        return String.format("C%07d", i);
+    }
+
+    private static String codigoPos(int i) {
+        return String.format("P%07d", i);
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
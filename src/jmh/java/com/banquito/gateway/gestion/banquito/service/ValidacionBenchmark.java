@@ -0,0 +1,67 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionBenchmark {
+
+    @Param({"valido", "invalido"})
+    private String caso;
+
+    private String ruc;
+    private String swift;
+    private String iban;
+    private String mac;
+
+    @Setup
+    public void preparar() {
+        if ("valido".equals(this.caso)) {
+            this.ruc = "1790012345001";
+            this.swift = "BOFAUS3NXXX";
+            this.iban = "ES9121000418450200051332";
+            this.mac = "00:1B:44:11:3A:B7";
+        } else {
+            this.ruc = "17900123450A1";
+            this.swift = "BOFA-S3N";
+            this.iban = "es9121000418450200051332";
+            this.mac = "00:1B:44:11:3A:G7";
+        }
+    }
+
+    @Benchmark
+    public boolean ruc() {
+        return ComercioService.RUC_PATTERN.matcher(this.ruc).matches();
+    }
+
+    @Benchmark
+    public boolean swift() {
+        return ComercioService.SWIFT_PATTERN.matcher(this.swift).matches();
+    }
+
+    @Benchmark
+    public boolean iban() {
+        return ComercioService.IBAN_PATTERN.matcher(this.iban).matches();
+    }
+
+    @Benchmark
+    public boolean mac() {
+        return PosComercioService.MAC_PATTERN.matcher(this.mac).matches();
+    }
+}
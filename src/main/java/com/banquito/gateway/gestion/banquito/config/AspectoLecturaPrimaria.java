@@ -0,0 +1,24 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AspectoLecturaPrimaria {
+
+    @Around("@annotation(com.banquito.gateway.gestion.banquito.config.LecturaPrimaria)")
+    public Object enPrimaria(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean anterior = EnrutadorDataSource.marcarLecturaPrimaria();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            EnrutadorDataSource.restaurarLecturaPrimaria(anterior);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class ContadorSentenciasSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.get()[0]++;
+        return sql;
+    }
+
+    public static void reiniciar() {
+        SENTENCIAS.get()[0] = 0;
+    }
+
+    public static int obtener() {
+        return SENTENCIAS.get()[0];
+    }
+}
@@ -0,0 +1,91 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import lombok.extern.slf4j.Slf4j;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "banquito.datasource.replica", name = "url")
+@Slf4j
+public class DataSourceReplicaConfig {
+
+    private EnrutadorDataSource enrutadorDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("banquito-primaria");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${banquito.datasource.replica.url}") String url,
+            @Value("${banquito.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${banquito.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${banquito.datasource.replica.maximum-pool-size:20}") int maximoConexiones) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("banquito-replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximoConexiones);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primariaDataSource") DataSource primaria,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${banquito.datasource.replica.consulta-retraso:}") String consultaRetraso,
+            @Value("${banquito.datasource.replica.retraso-maximo-segundos:5}") long retrasoMaximoSegundos,
+            MeterRegistry meterRegistry) {
+        log.info("Enrutamiento de lecturas a réplica habilitado: transacciones de solo lectura usan la réplica");
+        this.enrutadorDataSource = new EnrutadorDataSource(primaria, replica, consultaRetraso, retrasoMaximoSegundos);
+        Gauge.builder("banquito.datasource.replica.disponible", this.enrutadorDataSource,
+                enrutador -> enrutador.isReplicaDisponible() ? 1 : 0).register(meterRegistry);
+        return new LazyConnectionDataSourceProxy(this.enrutadorDataSource);
+    }
+
+    @Bean
+    public static BeanPostProcessor dialectoJpaReplica() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setJpaDialect(new DialectoJpaReplica());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.datasource.replica.intervalo-verificacion-ms:5000}")
+    public void verificarReplica() {
+        if (this.enrutadorDataSource != null) {
+            this.enrutadorDataSource.verificarReplica();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+import java.sql.SQLException;
+
+class DialectoJpaReplica extends HibernateJpaDialect {
+
+    private record DatosLecturaReplica(Object datos, Session session, CacheMode cacheModeAnterior) {
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object datos = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || EnrutadorDataSource.isLecturaPrimaria()) {
+            return datos;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode anterior = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new DatosLecturaReplica(datos, session, anterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof DatosLecturaReplica lectura) {
+            lectura.session().setCacheMode(lectura.cacheModeAnterior());
+            super.cleanupTransaction(lectura.datos());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+}
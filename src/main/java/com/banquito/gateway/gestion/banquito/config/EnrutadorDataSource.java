@@ -0,0 +1,112 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Slf4j
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIA, REPLICA
+    }
+
+    private static final int TIEMPO_VALIDACION_SEGUNDOS = 2;
+    private static final ThreadLocal<Boolean> LECTURA_PRIMARIA = new ThreadLocal<>();
+
+    private final DataSource replica;
+    private final String consultaRetraso;
+    private final long retrasoMaximoSegundos;
+    private volatile boolean replicaDisponible = true;
+
+    public EnrutadorDataSource(DataSource primaria, DataSource replica, String consultaRetraso,
+            long retrasoMaximoSegundos) {
+        this.replica = replica;
+        this.consultaRetraso = consultaRetraso;
+        this.retrasoMaximoSegundos = retrasoMaximoSegundos;
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (this.replicaDisponible && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !isLecturaPrimaria()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIA;
+    }
+
+    public static <T> T enPrimaria(Supplier<T> lectura) {
+        boolean anterior = marcarLecturaPrimaria();
+        try {
+            return lectura.get();
+        } finally {
+            restaurarLecturaPrimaria(anterior);
+        }
+    }
+
+    public static boolean isLecturaPrimaria() {
+        return LECTURA_PRIMARIA.get() != null;
+    }
+
+    static boolean marcarLecturaPrimaria() {
+        boolean anterior = isLecturaPrimaria();
+        LECTURA_PRIMARIA.set(Boolean.TRUE);
+        return anterior;
+    }
+
+    static void restaurarLecturaPrimaria(boolean anterior) {
+        if (!anterior) {
+            LECTURA_PRIMARIA.remove();
+        }
+    }
+
+    public boolean isReplicaDisponible() {
+        return this.replicaDisponible;
+    }
+
+    public void verificarReplica() {
+        boolean disponible = evaluarReplica();
+        if (disponible != this.replicaDisponible) {
+            if (disponible) {
+                log.info("Réplica de lectura disponible nuevamente, se reanuda el enrutamiento de lecturas");
+            } else {
+                log.warn("Réplica de lectura no disponible o con retraso excesivo, las lecturas se envían a la primaria");
+            }
+        }
+        this.replicaDisponible = disponible;
+    }
+
+    private boolean evaluarReplica() {
+        try (Connection conexion = this.replica.getConnection()) {
+            if (this.consultaRetraso == null || this.consultaRetraso.isBlank()) {
+                return conexion.isValid(TIEMPO_VALIDACION_SEGUNDOS);
+            }
+            try (Statement sentencia = conexion.createStatement();
+                    ResultSet resultado = sentencia.executeQuery(this.consultaRetraso)) {
+                if (!resultado.next()) {
+                    return false;
+                }
+                long retraso = resultado.getLong(1);
+                if (resultado.wasNull()) {
+                    return false;
+                }
+                log.debug("Retraso de la réplica de lectura: {} segundos", retraso);
+                return retraso <= this.retrasoMaximoSegundos;
+            }
+        } catch (SQLException e) {
+            log.warn("Error al verificar la réplica de lectura: {}", e.getMessage());
+            return false;
+        }
+    }
+}
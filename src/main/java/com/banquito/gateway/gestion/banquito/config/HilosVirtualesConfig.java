@@ -0,0 +1,65 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class HilosVirtualesConfig {
+
+    private static final String EVENTO_FIJACION = "jdk.VirtualThreadPinned";
+    private static final int MAX_MARCOS_REPORTADOS = 8;
+
+    private final Duration umbralFijacion;
+    private final Counter fijaciones;
+    private RecordingStream grabacion;
+
+    public HilosVirtualesConfig(
+            @Value("${banquito.hilos-virtuales.fijacion.umbral:20ms}") Duration umbralFijacion,
+            MeterRegistry meterRegistry) {
+        this.umbralFijacion = umbralFijacion;
+        this.fijaciones = meterRegistry.counter("banquito.hilos.virtuales.fijaciones");
+    }
+
+    @PostConstruct
+    public void iniciarMonitorFijacion() {
+        log.info("Hilos virtuales habilitados; registrando fijaciones de hilo portador mayores a {}", this.umbralFijacion);
+        this.grabacion = new RecordingStream();
+        this.grabacion.enable(EVENTO_FIJACION).withThreshold(this.umbralFijacion).withStackTrace();
+        this.grabacion.onEvent(EVENTO_FIJACION, this::reportarFijacion);
+        this.grabacion.startAsync();
+    }
+
+    @PreDestroy
+    public void detenerMonitorFijacion() {
+        if (this.grabacion != null) {
+            this.grabacion.close();
+        }
+    }
+
+    private void reportarFijacion(RecordedEvent evento) {
+        this.fijaciones.increment();
+        String pila = evento.getStackTrace() == null ? "sin pila" : evento.getStackTrace().getFrames().stream()
+                .limit(MAX_MARCOS_REPORTADOS)
+                .map(RecordedFrame::getMethod)
+                .map(metodo -> metodo.getType().getName() + "." + metodo.getName())
+                .collect(Collectors.joining(" <- "));
+        log.warn("Hilo virtual fijado a su portador durante {} ms en {}",
+                evento.getDuration().toMillis(), pila);
+    }
+}
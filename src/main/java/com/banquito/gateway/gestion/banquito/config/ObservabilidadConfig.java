@@ -0,0 +1,89 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+
+@Configuration
+public class ObservabilidadConfig {
+
+    private static final String ATRIBUTO_SENTENCIAS_SQL = ObservabilidadConfig.class.getName() + ".sentenciasSql";
+    private static final String NINGUNO = "ninguno";
+
+    @Bean
+    public DefaultServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and(KeyValue.of("handler", nombreHandler(context.getCarrier())))
+                        .and(KeyValue.of("sql", rangoSentencias(context.getCarrier())));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> contadorSentenciasSqlFilter(MeterRegistry meterRegistry) {
+        OncePerRequestFilter filtro = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                    FilterChain filterChain) throws ServletException, IOException {
+                ContadorSentenciasSql.reiniciar();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    int sentencias = ContadorSentenciasSql.obtener();
+                    request.setAttribute(ATRIBUTO_SENTENCIAS_SQL, sentencias);
+                    DistributionSummary.builder("banquito.http.sql.sentencias")
+                            .description("Sentencias SQL emitidas por Hibernate en cada solicitud")
+                            .tag("handler", nombreHandler(request))
+                            .register(meterRegistry)
+                            .record(sentencias);
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registro;
+    }
+
+    private static String nombreHandler(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        }
+        return NINGUNO;
+    }
+
+    private static String rangoSentencias(HttpServletRequest request) {
+        if (!(request.getAttribute(ATRIBUTO_SENTENCIAS_SQL) instanceof Integer sentencias)) {
+            return NINGUNO;
+        }
+        if (sentencias <= 1) {
+            return String.valueOf(sentencias);
+        }
+        if (sentencias <= 5) {
+            return "2-5";
+        }
+        if (sentencias <= 10) {
+            return "6-10";
+        }
+        return "mas-de-10";
+    }
+}
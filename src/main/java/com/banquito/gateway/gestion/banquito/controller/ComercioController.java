@@ -3,25 +3,39 @@ package com.banquito.gateway.gestion.banquito.controller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
 import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PaginaCursorDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResumenLoteDTO;
 import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.controller.mapper.CursorMapper;
+import com.banquito.gateway.gestion.banquito.controller.mapper.NdjsonMapper;
+import com.banquito.gateway.gestion.banquito.service.ComercioInfoService;
+import com.banquito.gateway.gestion.banquito.service.ComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.ExportacionService;
 import com.banquito.gateway.gestion.banquito.service.ComercioService;
-import com.banquito.gateway.gestion.banquito.service.PosComercioService;
+import com.banquito.gateway.gestion.banquito.service.PaginaBusquedaComercio;
+import com.banquito.gateway.gestion.banquito.service.ResultadoBusquedaComercio;
+import com.banquito.gateway.gestion.banquito.exception.BusquedaNoDisponibleException;
 import com.banquito.gateway.gestion.banquito.exception.ComercioNotFoundException;
+import com.banquito.gateway.gestion.banquito.exception.CursorInvalidoException;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
-import com.banquito.gateway.gestion.banquito.model.PosComercio;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,14 +45,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ComercioController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE_BUSQUEDA = 100;
+
     private final ComercioService comercioService;
     private final ComercioMapper comercioMapper;
-    private final PosComercioService posComercioService;
+    private final ComercioInfoService comercioInfoService;
+    private final CursorMapper cursorMapper;
+    private final NdjsonMapper ndjsonMapper;
+    private final ExportacionService exportacionService;
+    private final ComercioLoteService comercioLoteService;
 
-    public ComercioController(ComercioService comercioService, ComercioMapper comercioMapper, PosComercioService posComercioService) {
+    public ComercioController(ComercioService comercioService, ComercioMapper comercioMapper, ComercioInfoService comercioInfoService,
+            CursorMapper cursorMapper, NdjsonMapper ndjsonMapper, ExportacionService exportacionService,
+            ComercioLoteService comercioLoteService) {
         this.comercioService = comercioService;
         this.comercioMapper = comercioMapper;
-        this.posComercioService = posComercioService;
+        this.comercioInfoService = comercioInfoService;
+        this.cursorMapper = cursorMapper;
+        this.ndjsonMapper = ndjsonMapper;
+        this.exportacionService = exportacionService;
+        this.comercioLoteService = comercioLoteService;
     }
 
     @GetMapping
@@ -52,18 +79,63 @@ public class ComercioController {
         );
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar comercios por cursor", description = "Obtiene los comercios ordenados por código usando paginación por cursor, sin conteo total")
+    @ApiResponse(responseCode = "200", description = "Página de comercios obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Token de paginación inválido")
+    public ResponseEntity<PaginaCursorDTO<ComercioDTO>> getComerciosPorCursor(
+            @Parameter(description = "Token de la página anterior, vacío para la primera página")
+            @RequestParam(required = false) String pageToken,
+            @Parameter(description = "Cantidad de comercios por página (máximo 1000)")
+            @RequestParam(defaultValue = "10") int pageSize) {
+        int tamanio = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        return ResponseEntity.ok(
+            this.cursorMapper.toPagina(
+                this.comercioService.findSiguientes(this.cursorMapper.toClave(pageToken), tamanio + 1),
+                tamanio,
+                comercioMapper::toDTO,
+                Comercio::getCodigoComercio
+            )
+        );
+    }
+
+    @GetMapping(value = "/exportacion", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar comercios", description = "Exporta todos los comercios en formato NDJSON, una línea por registro, opcionalmente comprimido con gzip")
+    @ApiResponse(responseCode = "200", description = "Exportación generada exitosamente")
+    public ResponseEntity<StreamingResponseBody> exportarComercios(
+            @Parameter(description = "Comprimir la respuesta con gzip")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody cuerpo = this.ndjsonMapper.<ComercioDTO>toNdjson(gzip, escritor ->
+            this.exportacionService.exportarComercios(modelo -> escritor.accept(this.comercioMapper.toDTO(modelo)))
+        );
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().contentType(NdjsonMapper.APPLICATION_NDJSON);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
     @GetMapping("/{codigoComercio}")
     @Operation(summary = "Obtener comercio por código", description = "Retorna un comercio específico por su código")
     @ApiResponse(responseCode = "200", description = "Comercio encontrado")
+    @ApiResponse(responseCode = "304", description = "El comercio no ha cambiado desde la versión indicada en If-None-Match")
     @ApiResponse(responseCode = "404", description = "Comercio no encontrado")
     public ResponseEntity<ComercioDTO> getComercioById(
             @Parameter(description = "Código del comercio", required = true)
-            @PathVariable String codigoComercio) {
-        return ResponseEntity.ok(
-            this.comercioMapper.toDTO(
-                this.comercioService.findById(codigoComercio)
-            )
-        );
+            @PathVariable String codigoComercio,
+            @Parameter(description = "ETag de la versión que el cliente ya tiene")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = Etags.deVersion(this.comercioService.findVersion(codigoComercio));
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(Etags.CACHE_CONTROL).build();
+            }
+        }
+        Comercio comercio = this.comercioService.findById(codigoComercio);
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(comercio.getVersion()))
+                .cacheControl(Etags.CACHE_CONTROL)
+                .body(this.comercioMapper.toDTO(comercio));
     }
 
     @PostMapping
@@ -81,6 +153,26 @@ public class ComercioController {
         );
     }
 
+    @PostMapping(value = "/lote", consumes = "application/json")
+    @Operation(summary = "Crear comercios en lote", description = "Crea varios comercios en una sola operación y retorna el resultado de cada registro")
+    @ApiResponse(responseCode = "200", description = "Lote procesado, revisar el resultado de cada registro")
+    @ApiResponse(responseCode = "400", description = "El contenido no es un arreglo JSON válido o excede el tamaño permitido")
+    public ResponseEntity<ResumenLoteDTO> createComerciosLote(InputStream cuerpo) {
+        return ResponseEntity.ok(
+            this.comercioLoteService.crear(this.ndjsonMapper.fromJson(cuerpo, ComercioDTO.class))
+        );
+    }
+
+    @PostMapping(value = "/lote", consumes = "application/x-ndjson")
+    @Operation(summary = "Crear comercios en lote desde NDJSON", description = "Crea varios comercios recibidos en formato NDJSON, un comercio por línea")
+    @ApiResponse(responseCode = "200", description = "Lote procesado, revisar el resultado de cada registro")
+    @ApiResponse(responseCode = "400", description = "El contenido no es NDJSON válido o excede el tamaño permitido")
+    public ResponseEntity<ResumenLoteDTO> createComerciosLoteNdjson(InputStream cuerpo) {
+        return ResponseEntity.ok(
+            this.comercioLoteService.crear(this.ndjsonMapper.fromNdjson(cuerpo, ComercioDTO.class))
+        );
+    }
+
     @GetMapping("/nombre/{nombreComercial}")
     @Operation(summary = "Buscar comercios por nombre", description = "Retorna una lista de comercios que coinciden con el nombre comercial")
     @ApiResponse(responseCode = "200", description = "Lista de comercios obtenida exitosamente")
@@ -94,6 +186,31 @@ public class ComercioController {
         );
     }
 
+    @GetMapping("/busqueda")
+    @Operation(summary = "Buscar comercios por prefijo", description = "Busca comercios cuyo nombre comercial o razón social contiene palabras que empiezan con los términos indicados, usando paginación por cursor")
+    @ApiResponse(responseCode = "200", description = "Página de comercios obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Token de paginación inválido")
+    @ApiResponse(responseCode = "503", description = "El índice de búsqueda aún se está construyendo")
+    public ResponseEntity<PaginaCursorDTO<ComercioDTO>> buscarComercios(
+            @Parameter(description = "Términos a buscar, se comparan por prefijo sin distinguir mayúsculas ni tildes", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Token de la página anterior, vacío para la primera página")
+            @RequestParam(required = false) String pageToken,
+            @Parameter(description = "Cantidad de comercios por página (máximo 100)")
+            @RequestParam(defaultValue = "10") int pageSize) {
+        int tamanio = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE_BUSQUEDA);
+        PaginaBusquedaComercio pagina = this.comercioService.buscar(q, this.cursorMapper.toClave(pageToken), tamanio + 1);
+        return ResponseEntity.ok(
+            this.cursorMapper.toPagina(
+                pagina.resultados(),
+                tamanio,
+                pagina.reanudarDesde(),
+                resultado -> this.comercioMapper.toDTO(resultado.comercio()),
+                ResultadoBusquedaComercio::clave
+            )
+        );
+    }
+
     @GetMapping("/iban/{cuentaIban}")
     @Operation(summary = "Buscar comercio por IBAN", description = "Retorna un comercio que coincide con la cuenta IBAN")
     @ApiResponse(responseCode = "200", description = "Comercio encontrado")
@@ -142,23 +259,22 @@ public class ComercioController {
     public ResponseEntity<ComercioInfoDTO> getComercioInfoByPos(
             @Parameter(description = "Código del POS", required = true)
             @PathVariable String codigoPos) {
-        log.info("Obteniendo información del comercio para el POS: {}", codigoPos);
-        
-        PosComercio pos = this.posComercioService.findById(codigoPos);
-        Comercio comercio = pos.getComercio();
-        
-        ComercioInfoDTO dto = new ComercioInfoDTO();
-        dto.setCodigo_comercio(comercio.getCodigoComercio());
-        dto.setNombre_comercio(comercio.getNombreComercial());
-        dto.setSwift_banco(comercio.getSwiftBanco());
-        dto.setCuenta_iban(comercio.getCuentaIban());
-        dto.setEstado(comercio.getEstado().equals("ACT") ? "ACTIVO" : "INACTIVO");
-        
-        return ResponseEntity.ok(dto);
+        log.debug("Obteniendo información del comercio para el POS: {}", codigoPos);
+        return ResponseEntity.ok(this.comercioInfoService.findByPos(codigoPos));
     }
 
     @ExceptionHandler(ComercioNotFoundException.class)
     public ResponseEntity<Void> handleComercioNotFound() {
         return ResponseEntity.notFound().build();
     }
+
+    @ExceptionHandler({CursorInvalidoException.class, LoteInvalidoException.class})
+    public ResponseEntity<Void> handleSolicitudInvalida() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler(BusquedaNoDisponibleException.class)
+    public ResponseEntity<Void> handleBusquedaNoDisponible() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.banquito.gateway.gestion.banquito.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+final class Etags {
+
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private Etags() {
+    }
+
+    static String deVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String deVersion(Long version, LocalDateTime ultimoUso) {
+        if (ultimoUso == null) {
+            return deVersion(version);
+        }
+        long microsegundos = ultimoUso.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + ultimoUso.getNano() / 1_000;
+        return "\"" + version + "-" + Long.toString(microsegundos, 36) + "\"";
+    }
+
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag actual = ETag.create(etag);
+        for (ETag candidato : ETag.parse(ifNoneMatch)) {
+            if (candidato.isWildcard() || candidato.compare(actual, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
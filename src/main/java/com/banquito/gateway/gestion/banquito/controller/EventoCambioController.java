@@ -0,0 +1,115 @@
+package com.banquito.gateway.gestion.banquito.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.PaginaEventosDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.EventoCambioMapper;
+import com.banquito.gateway.gestion.banquito.exception.EventosDepuradosException;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.service.FlujoEventosService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/eventos")
+@Tag(name = "Eventos", description = "API para consumir de forma incremental los cambios de comercios y POS")
+@Slf4j
+public class EventoCambioController {
+
+    private static final int MAX_LIMITE = 500;
+    private static final int MAX_ESPERA_SEGUNDOS = 60;
+
+    private final FlujoEventosService flujoEventosService;
+    private final EventoCambioMapper eventoCambioMapper;
+    private final Duration duracionStream;
+
+    public EventoCambioController(FlujoEventosService flujoEventosService, EventoCambioMapper eventoCambioMapper,
+            @Value("${banquito.eventos.duracion-stream:30m}") Duration duracionStream) {
+        this.flujoEventosService = flujoEventosService;
+        this.eventoCambioMapper = eventoCambioMapper;
+        this.duracionStream = duracionStream;
+    }
+
+    @GetMapping
+    @Operation(summary = "Leer eventos de cambio", description = "Retorna los eventos posteriores a la posición indicada. Si no hay eventos espera hasta que lleguen o se cumpla el tiempo de espera (long-poll)")
+    @ApiResponse(responseCode = "200", description = "Eventos obtenidos, la lista puede estar vacía si se cumplió la espera")
+    @ApiResponse(responseCode = "410", description = "Los eventos posteriores a la posición ya fueron depurados, se debe sincronizar el estado completo")
+    public DeferredResult<ResponseEntity<PaginaEventosDTO>> getEventos(
+            @Parameter(description = "Posición del último evento procesado, 0 para leer desde el inicio")
+            @RequestParam(defaultValue = "0") long desde,
+            @Parameter(description = "Cantidad máxima de eventos a retornar (máximo 500)")
+            @RequestParam(defaultValue = "100") int limite,
+            @Parameter(description = "Segundos a esperar si no hay eventos nuevos (máximo 60, 0 para no esperar)")
+            @RequestParam(defaultValue = "30") int espera) {
+        int cantidad = Math.min(Math.max(limite, 1), MAX_LIMITE);
+        int segundos = Math.min(Math.max(espera, 0), MAX_ESPERA_SEGUNDOS);
+        ResponseEntity<PaginaEventosDTO> vacia = ResponseEntity.ok(this.eventoCambioMapper.toPagina(List.of(), desde));
+        DeferredResult<ResponseEntity<PaginaEventosDTO>> resultado = new DeferredResult<>(
+                Duration.ofSeconds(segundos).toMillis(), () -> vacia);
+        if (segundos == 0) {
+            resultado.setResult(ResponseEntity.ok(this.eventoCambioMapper.toPagina(
+                    this.flujoEventosService.leer(desde, cantidad), desde)));
+            return resultado;
+        }
+        FlujoEventosService.Suscripcion suscripcion = this.flujoEventosService.suscribir(desde, cantidad, eventos -> {
+            resultado.setResult(ResponseEntity.ok(this.eventoCambioMapper.toPagina(eventos, desde)));
+            return false;
+        }, () -> resultado.setResult(vacia));
+        resultado.onCompletion(() -> this.flujoEventosService.cancelar(suscripcion));
+        return resultado;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a eventos de cambio", description = "Transmite los eventos posteriores a la posición indicada como Server-Sent Events. Al reconectar se continúa desde el encabezado Last-Event-ID")
+    @ApiResponse(responseCode = "200", description = "Flujo de eventos iniciado")
+    @ApiResponse(responseCode = "410", description = "Los eventos posteriores a la posición ya fueron depurados, se debe sincronizar el estado completo")
+    public SseEmitter streamEventos(
+            @Parameter(description = "Posición del último evento procesado, 0 para leer desde el inicio")
+            @RequestParam(defaultValue = "0") long desde,
+            @Parameter(description = "Posición del último evento recibido, enviada por el cliente al reconectar")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoId) {
+        SseEmitter emisor = new SseEmitter(this.duracionStream.toMillis());
+        FlujoEventosService.Suscripcion suscripcion = this.flujoEventosService.suscribir(
+                ultimoEventoId != null ? ultimoEventoId : desde, MAX_LIMITE, eventos -> enviar(emisor, eventos),
+                emisor::complete);
+        emisor.onCompletion(() -> this.flujoEventosService.cancelar(suscripcion));
+        emisor.onTimeout(() -> this.flujoEventosService.cancelar(suscripcion));
+        emisor.onError(error -> this.flujoEventosService.cancelar(suscripcion));
+        return emisor;
+    }
+
+    private boolean enviar(SseEmitter emisor, List<EventoCambio> eventos) {
+        try {
+            for (EventoCambio evento : eventos) {
+                emisor.send(SseEmitter.event()
+                        .id(String.valueOf(evento.getId()))
+                        .name(evento.getTipoEntidad())
+                        .data(this.eventoCambioMapper.toDTO(evento), MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Suscriptor de eventos desconectado: {}", e.getMessage());
+            emisor.completeWithError(e);
+            return false;
+        }
+    }
+
+    @ExceptionHandler(EventosDepuradosException.class)
+    public ResponseEntity<Void> handleEventosDepurados() {
+        return ResponseEntity.status(HttpStatus.GONE).build();
+    }
+}
@@ -3,18 +3,33 @@ package com.banquito.gateway.gestion.banquito.controller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
 import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoPosDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PaginaCursorDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResumenLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.CursorMapper;
+import com.banquito.gateway.gestion.banquito.controller.mapper.NdjsonMapper;
 import com.banquito.gateway.gestion.banquito.controller.mapper.PosComercioMapper;
 import com.banquito.gateway.gestion.banquito.service.PosComercioService;
-import com.banquito.gateway.gestion.banquito.service.ComercioService;
+import com.banquito.gateway.gestion.banquito.service.ComercioInfoService;
+import com.banquito.gateway.gestion.banquito.service.ExportacionService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioLoteService;
+import com.banquito.gateway.gestion.banquito.exception.ConflictoConcurrenciaException;
+import com.banquito.gateway.gestion.banquito.exception.CursorInvalidoException;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
 import com.banquito.gateway.gestion.banquito.exception.PosComercioNotFoundException;
+import com.banquito.gateway.gestion.banquito.exception.UltimoUsoSaturadoException;
 import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioVersionView;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +37,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -31,14 +47,26 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PosComercioController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final PosComercioService posComercioService;
     private final PosComercioMapper posComercioMapper;
-    private final ComercioService comercioService;
+    private final ComercioInfoService comercioInfoService;
+    private final CursorMapper cursorMapper;
+    private final NdjsonMapper ndjsonMapper;
+    private final ExportacionService exportacionService;
+    private final PosComercioLoteService posComercioLoteService;
 
-    public PosComercioController(PosComercioService posComercioService, PosComercioMapper posComercioMapper, ComercioService comercioService) {
+    public PosComercioController(PosComercioService posComercioService, PosComercioMapper posComercioMapper,
+            ComercioInfoService comercioInfoService, CursorMapper cursorMapper, NdjsonMapper ndjsonMapper, ExportacionService exportacionService,
+            PosComercioLoteService posComercioLoteService) {
         this.posComercioService = posComercioService;
         this.posComercioMapper = posComercioMapper;
-        this.comercioService = comercioService;
+        this.comercioInfoService = comercioInfoService;
+        this.cursorMapper = cursorMapper;
+        this.ndjsonMapper = ndjsonMapper;
+        this.exportacionService = exportacionService;
+        this.posComercioLoteService = posComercioLoteService;
     }
 
     @GetMapping
@@ -46,25 +74,71 @@ public class PosComercioController {
     @ApiResponse(responseCode = "200", description = "Lista de POS obtenida exitosamente")
     public ResponseEntity<Page<PosComercioDTO>> getAllPosComercio(
             @PageableDefault(size = 10, sort = "codigoPos") Pageable pageable) {
-        log.info("Obteniendo lista paginada de POS con configuración: {}", pageable);
+        log.debug("Obteniendo lista paginada de POS con configuración: {}", pageable);
         return ResponseEntity.ok(
             this.posComercioService.findAll(pageable)
                 .map(posComercioMapper::toDTO)
         );
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar POS por cursor", description = "Obtiene los POS ordenados por código usando paginación por cursor, sin conteo total")
+    @ApiResponse(responseCode = "200", description = "Página de POS obtenida exitosamente")
+    @ApiResponse(responseCode = "400", description = "Token de paginación inválido")
+    public ResponseEntity<PaginaCursorDTO<PosComercioDTO>> getPosComercioPorCursor(
+            @Parameter(description = "Token de la página anterior, vacío para la primera página")
+            @RequestParam(required = false) String pageToken,
+            @Parameter(description = "Cantidad de POS por página (máximo 1000)")
+            @RequestParam(defaultValue = "10") int pageSize) {
+        int tamanio = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        return ResponseEntity.ok(
+            this.cursorMapper.toPagina(
+                this.posComercioService.findSiguientes(this.cursorMapper.toClave(pageToken), tamanio + 1),
+                tamanio,
+                posComercioMapper::toDTO,
+                PosComercio::getCodigoPos
+            )
+        );
+    }
+
+    @GetMapping(value = "/exportacion", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar POS", description = "Exporta todos los POS en formato NDJSON, una línea por registro, opcionalmente comprimido con gzip")
+    @ApiResponse(responseCode = "200", description = "Exportación generada exitosamente")
+    public ResponseEntity<StreamingResponseBody> exportarPosComercio(
+            @Parameter(description = "Comprimir la respuesta con gzip")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody cuerpo = this.ndjsonMapper.<PosComercioDTO>toNdjson(gzip, escritor ->
+            this.exportacionService.exportarPosComercio(modelo -> escritor.accept(this.posComercioMapper.toDTO(modelo)))
+        );
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().contentType(NdjsonMapper.APPLICATION_NDJSON);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
     @GetMapping("/{codigoPos}")
     @Operation(summary = "Obtener POS por código", description = "Retorna un POS específico por su código")
     @ApiResponse(responseCode = "200", description = "POS encontrado")
+    @ApiResponse(responseCode = "304", description = "El POS no ha cambiado desde la versión indicada en If-None-Match")
     @ApiResponse(responseCode = "404", description = "POS no encontrado")
     public ResponseEntity<PosComercioDTO> getPosComercioById(
             @Parameter(description = "Código del POS", required = true)
-            @PathVariable String codigoPos) {
-        return ResponseEntity.ok(
-            this.posComercioMapper.toDTO(
-                this.posComercioService.findById(codigoPos)
-            )
-        );
+            @PathVariable String codigoPos,
+            @Parameter(description = "ETag de la versión que el cliente ya tiene")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            PosComercioVersionView version = this.posComercioService.findVersion(codigoPos);
+            String etag = Etags.deVersion(version.getVersion(), version.getUltimoUso());
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(Etags.CACHE_CONTROL).build();
+            }
+        }
+        PosComercio posComercio = this.posComercioService.findById(codigoPos);
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(posComercio.getVersion(), posComercio.getUltimoUso()))
+                .cacheControl(Etags.CACHE_CONTROL)
+                .body(this.posComercioMapper.toDTO(posComercio));
     }
 
     @PostMapping
@@ -73,21 +147,37 @@ public class PosComercioController {
     public ResponseEntity<PosComercioDTO> asignarPosComercio(
             @Parameter(description = "Datos del POS", required = true)
             @Valid @RequestBody PosComercioDTO posComercioDTO) {
-        
-        Comercio comercio = this.comercioService.findById(posComercioDTO.getCodigoComercio());
-        
-        
         PosComercio posComercio = new PosComercio();
         posComercio.setCodigoPos(posComercioDTO.getCodigoPos());
         posComercio.setModelo(posComercioDTO.getModelo());
         posComercio.setDireccionMac(posComercioDTO.getDireccionMac());
         posComercio.setEstado(posComercioDTO.getEstado());
-        posComercio.setComercio(comercio);
+        posComercio.setComercio(new Comercio(posComercioDTO.getCodigoComercio()));
         
         PosComercio createdPos = this.posComercioService.create(posComercio);
         return ResponseEntity.ok(this.posComercioMapper.toDTO(createdPos));
     }
 
+    @PostMapping(value = "/lote", consumes = "application/json")
+    @Operation(summary = "Asignar POS en lote", description = "Asigna varios POS a sus comercios en una sola operación y retorna el resultado de cada registro")
+    @ApiResponse(responseCode = "200", description = "Lote procesado, revisar el resultado de cada registro")
+    @ApiResponse(responseCode = "400", description = "El contenido no es un arreglo JSON válido o excede el tamaño permitido")
+    public ResponseEntity<ResumenLoteDTO> asignarPosComercioLote(InputStream cuerpo) {
+        return ResponseEntity.ok(
+            this.posComercioLoteService.asignar(this.ndjsonMapper.fromJson(cuerpo, PosComercioDTO.class))
+        );
+    }
+
+    @PostMapping(value = "/lote", consumes = "application/x-ndjson")
+    @Operation(summary = "Asignar POS en lote desde NDJSON", description = "Asigna varios POS recibidos en formato NDJSON, un POS por línea")
+    @ApiResponse(responseCode = "200", description = "Lote procesado, revisar el resultado de cada registro")
+    @ApiResponse(responseCode = "400", description = "El contenido no es NDJSON válido o excede el tamaño permitido")
+    public ResponseEntity<ResumenLoteDTO> asignarPosComercioLoteNdjson(InputStream cuerpo) {
+        return ResponseEntity.ok(
+            this.posComercioLoteService.asignar(this.ndjsonMapper.fromNdjson(cuerpo, PosComercioDTO.class))
+        );
+    }
+
     @DeleteMapping("/{codigoPos}")
     @Operation(summary = "Remover POS", description = "Remueve un POS de un comercio")
     @ApiResponse(responseCode = "204", description = "POS removido exitosamente")
@@ -129,6 +219,7 @@ public class PosComercioController {
     @Operation(summary = "Actualizar último uso", description = "Actualiza la fecha de último uso de un POS")
     @ApiResponse(responseCode = "204", description = "Último uso actualizado exitosamente")
     @ApiResponse(responseCode = "404", description = "POS no encontrado")
+    @ApiResponse(responseCode = "503", description = "Registros de último uso saturados, reintentar según Retry-After")
     public ResponseEntity<Void> actualizarUltimoUso(
             @Parameter(description = "Código del POS", required = true)
             @PathVariable String codigoPos) {
@@ -143,33 +234,30 @@ public class PosComercioController {
     public ResponseEntity<ComercioInfoDTO> getComercioInfoByPos(
             @Parameter(description = "Código del POS", required = true)
             @PathVariable String codigoPos) {
-        PosComercio pos = this.posComercioService.findById(codigoPos);
-        Comercio comercio = pos.getComercio();
-        
-        ComercioInfoDTO dto = new ComercioInfoDTO();
-        dto.setCodigo_comercio(comercio.getCodigoComercio());
-        dto.setNombre_comercio(comercio.getNombreComercial());
-        dto.setSwift_banco(comercio.getSwiftBanco());
-        dto.setCuenta_iban(comercio.getCuentaIban());
-        dto.setEstado(comercio.getEstado().equals("ACT") ? "ACTIVO" : "INACTIVO");
-        
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok(this.comercioInfoService.findByPos(codigoPos));
+    }
+
+    @PostMapping("/comercio-info/lote")
+    @Operation(summary = "Obtener información del comercio para varios POS", description = "Retorna la información del comercio asociado a cada POS solicitado, indicando los POS que no existen")
+    @ApiResponse(responseCode = "200", description = "Información obtenida, revisar el indicador de cada POS")
+    @ApiResponse(responseCode = "400", description = "La consulta está vacía, contiene códigos nulos o vacíos, o excede el número de POS permitido")
+    public ResponseEntity<List<ComercioInfoPosDTO>> getComercioInfoByPosLote(
+            @Parameter(description = "Códigos de los POS a consultar", required = true)
+            @RequestBody List<String> codigosPos) {
+        return ResponseEntity.ok(this.comercioInfoService.findByPosLote(codigosPos));
     }
 
     @PatchMapping("/{codigoPos}/asignar/{codigoComercio}")
     @Operation(summary = "Asignar POS existente a comercio", description = "Asigna un POS existente a un comercio existente")
     @ApiResponse(responseCode = "200", description = "POS asignado exitosamente")
     @ApiResponse(responseCode = "404", description = "POS o comercio no encontrado")
+    @ApiResponse(responseCode = "409", description = "El POS fue modificado concurrentemente")
     public ResponseEntity<PosComercioDTO> asignarPosExistente(
             @Parameter(description = "Código del POS", required = true) @PathVariable String codigoPos,
             @Parameter(description = "Código del comercio", required = true) @PathVariable String codigoComercio) {
-        log.info("Asignando POS {} al comercio {}", codigoPos, codigoComercio);
-        
-        PosComercio pos = this.posComercioService.findById(codigoPos);
-        Comercio comercio = this.comercioService.findById(codigoComercio);
+        log.debug("Asignando POS {} al comercio {}", codigoPos, codigoComercio);
         
-        pos.setComercio(comercio);
-        PosComercio posActualizado = this.posComercioService.update(pos);
+        PosComercio posActualizado = this.posComercioService.asignarComercio(codigoPos, codigoComercio);
         
         return ResponseEntity.ok(this.posComercioMapper.toDTO(posActualizado));
     }
@@ -184,7 +272,7 @@ public class PosComercioController {
             @PathVariable String codigoPos,
             @Parameter(description = "Nuevo estado (ACT/INA)", required = true) 
             @PathVariable String nuevoEstado) {
-        log.info("Actualizando estado del POS {} a {}", codigoPos, nuevoEstado);
+        log.debug("Actualizando estado del POS {} a {}", codigoPos, nuevoEstado);
         
         PosComercio posActualizado = this.posComercioService.actualizarEstado(codigoPos, nuevoEstado);
         return ResponseEntity.ok(this.posComercioMapper.toDTO(posActualizado));
@@ -194,4 +282,21 @@ public class PosComercioController {
     public ResponseEntity<Void> handlePosComercioNotFound() {
         return ResponseEntity.notFound().build();
     }
-} 
\ No newline at end of file
+
+    @ExceptionHandler({CursorInvalidoException.class, LoteInvalidoException.class})
+    public ResponseEntity<Void> handleSolicitudInvalida() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    @ExceptionHandler(ConflictoConcurrenciaException.class)
+    public ResponseEntity<Void> handleConflictoConcurrencia() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(UltimoUsoSaturadoException.class)
+    public ResponseEntity<Void> handleUltimoUsoSaturado(UltimoUsoSaturadoException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .build();
+    }
+}
\ No newline at end of file
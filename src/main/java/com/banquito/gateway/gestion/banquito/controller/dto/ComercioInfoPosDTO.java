@@ -0,0 +1,20 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Información del comercio asociado a un POS dentro de una consulta en lote")
+public class ComercioInfoPosDTO {
+
+    @Schema(description = "Código del POS consultado", example = "POS001")
+    private String codigoPos;
+
+    @Schema(description = "Indica si el POS existe", example = "true")
+    private Boolean encontrado;
+
+    @Schema(description = "Información del comercio, nula si el POS no existe")
+    private ComercioInfoDTO comercio;
+}
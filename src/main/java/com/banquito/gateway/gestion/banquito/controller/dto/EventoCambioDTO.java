@@ -0,0 +1,30 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Cambio de estado de un comercio o POS")
+public class EventoCambioDTO {
+
+    @Schema(description = "Posición del evento, usar como 'desde' para continuar la lectura", example = "1024")
+    private Long id;
+
+    @Schema(description = "Tipo de entidad modificada (COM: comercio, POS: punto de venta)", example = "COM")
+    private String tipoEntidad;
+
+    @Schema(description = "Código del comercio o POS modificado", example = "COM001")
+    private String codigo;
+
+    @Schema(description = "Tipo de cambio (CREACION, SUSPENSION, ESTADO, ACTUALIZACION, ELIMINACION, INACTIVIDAD)", example = "SUSPENSION")
+    private String tipoCambio;
+
+    @Schema(description = "Estado de la entidad después del cambio, nulo si fue eliminada", example = "SUS")
+    private String estado;
+
+    @Schema(description = "Fecha en que se registró el cambio")
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,21 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Página de resultados con paginación por cursor")
+public class PaginaCursorDTO<T> {
+
+    @Schema(description = "Elementos de la página")
+    private List<T> contenido;
+
+    @Schema(description = "Cantidad de elementos solicitada")
+    private Integer pageSize;
+
+    @Schema(description = "Token opaco para obtener la siguiente página, nulo si no existen más resultados. Una página puede traer menos elementos que los solicitados y aun así incluir token")
+    private String nextPageToken;
+}
@@ -0,0 +1,18 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Eventos de cambio leídos a partir de una posición")
+public class PaginaEventosDTO {
+
+    @Schema(description = "Eventos en orden de registro")
+    private List<EventoCambioDTO> eventos;
+
+    @Schema(description = "Posición a enviar como 'desde' en la siguiente consulta", example = "1024")
+    private Long siguienteDesde;
+}
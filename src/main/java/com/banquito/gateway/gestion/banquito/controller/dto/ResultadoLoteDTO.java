@@ -0,0 +1,23 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado del procesamiento de un registro dentro de un lote")
+public class ResultadoLoteDTO {
+
+    @Schema(description = "Posición del registro en el lote, iniciando en 0", example = "0")
+    private Integer indice;
+
+    @Schema(description = "Código del registro procesado", example = "COM001")
+    private String codigo;
+
+    @Schema(description = "Resultado del registro (CREADO, RECHAZADO)", example = "CREADO")
+    private String resultado;
+
+    @Schema(description = "Motivo del rechazo, nulo si el registro fue creado")
+    private String mensaje;
+}
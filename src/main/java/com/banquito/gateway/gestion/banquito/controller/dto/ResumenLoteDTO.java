@@ -0,0 +1,24 @@
+package com.banquito.gateway.gestion.banquito.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resumen del procesamiento de un lote")
+public class ResumenLoteDTO {
+
+    @Schema(description = "Cantidad de registros recibidos", example = "100")
+    private Integer total;
+
+    @Schema(description = "Cantidad de registros creados", example = "98")
+    private Integer creados;
+
+    @Schema(description = "Cantidad de registros rechazados", example = "2")
+    private Integer rechazados;
+
+    @Schema(description = "Resultado de cada registro en el orden recibido")
+    private List<ResultadoLoteDTO> resultados;
+}
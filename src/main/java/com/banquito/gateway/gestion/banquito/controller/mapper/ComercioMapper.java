@@ -2,7 +2,11 @@ package com.banquito.gateway.gestion.banquito.controller.mapper;
 
 import org.springframework.stereotype.Component;
 import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoPosDTO;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioInfoView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioView;
 
 @Component
 public class ComercioMapper {
@@ -29,6 +33,28 @@ public class ComercioMapper {
         return dto;
     }
 
+    public ComercioDTO toDTO(ComercioView view) {
+        if (view == null) {
+            return null;
+        }
+
+        ComercioDTO dto = new ComercioDTO();
+        dto.setCodigoComercio(view.getCodigoComercio());
+        dto.setCodigoInterno(view.getCodigoInterno());
+        dto.setRuc(view.getRuc());
+        dto.setRazonSocial(view.getRazonSocial());
+        dto.setNombreComercial(view.getNombreComercial());
+        dto.setFechaCreacion(view.getFechaCreacion());
+        dto.setCodigoComision(view.getCodigoComision());
+        dto.setEstado(view.getEstado());
+        dto.setSwiftBanco(view.getSwiftBanco());
+        dto.setCuentaIban(view.getCuentaIban());
+        dto.setFechaActivacion(view.getFechaActivacion());
+        dto.setFechaSuspension(view.getFechaSuspension());
+
+        return dto;
+    }
+
     public Comercio toModel(ComercioDTO dto) {
         if (dto == null) {
             return null;
@@ -50,4 +76,43 @@ public class ComercioMapper {
 
         return model;
     }
-} 
\ No newline at end of file
+
+    public ComercioInfoDTO toInfoDTO(Comercio model) {
+        if (model == null) {
+            return null;
+        }
+
+        ComercioInfoDTO dto = new ComercioInfoDTO();
+        dto.setCodigo_comercio(model.getCodigoComercio());
+        dto.setNombre_comercio(model.getNombreComercial());
+        dto.setSwift_banco(model.getSwiftBanco());
+        dto.setCuenta_iban(model.getCuentaIban());
+        dto.setEstado("ACT".equals(model.getEstado()) ? "ACTIVO" : "INACTIVO");
+
+        return dto;
+    }
+
+    public ComercioInfoDTO toInfoDTO(ComercioInfoView view) {
+        if (view == null) {
+            return null;
+        }
+
+        ComercioInfoDTO dto = new ComercioInfoDTO();
+        dto.setCodigo_comercio(view.getCodigoComercio());
+        dto.setNombre_comercio(view.getNombreComercial());
+        dto.setSwift_banco(view.getSwiftBanco());
+        dto.setCuenta_iban(view.getCuentaIban());
+        dto.setEstado("ACT".equals(view.getEstado()) ? "ACTIVO" : "INACTIVO");
+
+        return dto;
+    }
+
+    public ComercioInfoPosDTO toInfoPosDTO(String codigoPos, ComercioInfoDTO info) {
+        ComercioInfoPosDTO dto = new ComercioInfoPosDTO();
+        dto.setCodigoPos(codigoPos);
+        dto.setEncontrado(info != null);
+        dto.setComercio(info);
+
+        return dto;
+    }
+}
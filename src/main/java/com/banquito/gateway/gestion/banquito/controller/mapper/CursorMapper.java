@@ -0,0 +1,57 @@
+package com.banquito.gateway.gestion.banquito.controller.mapper;
+
+import org.springframework.stereotype.Component;
+import com.banquito.gateway.gestion.banquito.controller.dto.PaginaCursorDTO;
+import com.banquito.gateway.gestion.banquito.exception.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class CursorMapper {
+
+    private static final String PREFIJO = "k1:";
+
+    public String toClave(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return "";
+        }
+        try {
+            String decodificado = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            if (!decodificado.startsWith(PREFIJO)) {
+                throw new CursorInvalidoException(pageToken);
+            }
+            return decodificado.substring(PREFIJO.length());
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException(pageToken);
+        }
+    }
+
+    public String toPageToken(String clave) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO + clave).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <M, D> PaginaCursorDTO<D> toPagina(List<M> elementos, int pageSize, Function<M, D> mapper,
+            Function<M, String> clave) {
+        return toPagina(elementos, pageSize, null, mapper, clave);
+    }
+
+    public <M, D> PaginaCursorDTO<D> toPagina(List<M> elementos, int pageSize, String reanudarDesde,
+            Function<M, D> mapper, Function<M, String> clave) {
+        boolean hayMas = elementos.size() > pageSize;
+        List<M> pagina = hayMas ? elementos.subList(0, pageSize) : elementos;
+
+        PaginaCursorDTO<D> dto = new PaginaCursorDTO<>();
+        dto.setContenido(pagina.stream().map(mapper).toList());
+        dto.setPageSize(pageSize);
+        if (hayMas) {
+            dto.setNextPageToken(toPageToken(clave.apply(pagina.get(pagina.size() - 1))));
+        } else if (reanudarDesde != null) {
+            dto.setNextPageToken(toPageToken(reanudarDesde));
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,35 @@
+package com.banquito.gateway.gestion.banquito.controller.mapper;
+
+import org.springframework.stereotype.Component;
+import com.banquito.gateway.gestion.banquito.controller.dto.EventoCambioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PaginaEventosDTO;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+
+import java.util.List;
+
+@Component
+public class EventoCambioMapper {
+
+    public EventoCambioDTO toDTO(EventoCambio model) {
+        if (model == null) {
+            return null;
+        }
+
+        EventoCambioDTO dto = new EventoCambioDTO();
+        dto.setId(model.getId());
+        dto.setTipoEntidad(model.getTipoEntidad());
+        dto.setCodigo(model.getCodigo());
+        dto.setTipoCambio(model.getTipoCambio());
+        dto.setEstado(model.getEstado());
+        dto.setFecha(model.getFecha());
+
+        return dto;
+    }
+
+    public PaginaEventosDTO toPagina(List<EventoCambio> eventos, long desde) {
+        PaginaEventosDTO dto = new PaginaEventosDTO();
+        dto.setEventos(eventos.stream().map(this::toDTO).toList());
+        dto.setSiguienteDesde(eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getId());
+        return dto;
+    }
+}
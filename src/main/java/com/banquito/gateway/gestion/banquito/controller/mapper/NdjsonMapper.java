@@ -0,0 +1,116 @@
+package com.banquito.gateway.gestion.banquito.controller.mapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class NdjsonMapper {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final int maximoRegistros;
+
+    public NdjsonMapper(ObjectMapper objectMapper,
+            @Value("${banquito.lote.maximo-registros:10000}") int maximoRegistros) {
+        this.objectMapper = objectMapper;
+        this.maximoRegistros = maximoRegistros;
+        this.writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public <T> StreamingResponseBody toNdjson(boolean gzip, Consumer<Consumer<T>> productor) {
+        return salida -> {
+            OutputStream destino = gzip
+                    ? new GZIPOutputStream(salida, TAMANIO_BUFFER)
+                    : new BufferedOutputStream(salida, TAMANIO_BUFFER);
+            AtomicBoolean escrito = new AtomicBoolean();
+            try (SequenceWriter secuencia = this.writer.writeValues(destino)) {
+                productor.accept(valor -> {
+                    escribir(secuencia, valor);
+                    escrito.set(true);
+                });
+            }
+            if (escrito.get()) {
+                destino.write('\n');
+            }
+            if (destino instanceof GZIPOutputStream comprimido) {
+                comprimido.finish();
+            }
+            destino.flush();
+        };
+    }
+
+    public <T> List<T> fromNdjson(InputStream entrada, Class<T> tipo) {
+        ObjectReader reader = this.objectMapper.readerFor(tipo);
+        try (MappingIterator<T> valores = reader.readValues(entrada)) {
+            List<T> registros = new ArrayList<>();
+            while (valores.hasNextValue()) {
+                if (registros.size() == this.maximoRegistros) {
+                    throw new LoteInvalidoException("se permiten máximo " + this.maximoRegistros + " registros por lote");
+                }
+                registros.add(valores.nextValue());
+            }
+            return registros;
+        } catch (IOException e) {
+            throw new LoteInvalidoException("el contenido NDJSON no es válido: " + e.getMessage());
+        }
+    }
+
+    public <T> List<T> fromJson(InputStream entrada, Class<T> tipo) {
+        ObjectReader reader = this.objectMapper.readerFor(tipo);
+        try (JsonParser parser = this.objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new LoteInvalidoException("se esperaba un arreglo JSON");
+            }
+            List<T> registros = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new LoteInvalidoException("el arreglo JSON está incompleto");
+                }
+                if (registros.size() == this.maximoRegistros) {
+                    throw new LoteInvalidoException("se permiten máximo " + this.maximoRegistros + " registros por lote");
+                }
+                registros.add(reader.readValue(parser));
+            }
+            return registros;
+        } catch (IOException e) {
+            throw new LoteInvalidoException("el contenido JSON no es válido: " + e.getMessage());
+        }
+    }
+
+    private void escribir(SequenceWriter secuencia, Object valor) {
+        try {
+            secuencia.write(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
 import com.banquito.gateway.gestion.banquito.model.PosComercio;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioView;
 
 @Component
 public class PosComercioMapper {
@@ -25,6 +26,23 @@ public class PosComercioMapper {
         return dto;
     }
 
+    public PosComercioDTO toDTO(PosComercioView view) {
+        if (view == null) {
+            return null;
+        }
+
+        PosComercioDTO dto = new PosComercioDTO();
+        dto.setCodigoPos(view.getCodigoPos());
+        dto.setModelo(view.getModelo());
+        dto.setCodigoComercio(view.getCodigoComercio());
+        dto.setDireccionMac(view.getDireccionMac());
+        dto.setEstado(view.getEstado());
+        dto.setFechaActivacion(view.getFechaActivacion());
+        dto.setUltimoUso(view.getUltimoUso());
+
+        return dto;
+    }
+
     public PosComercio toModel(PosComercioDTO dto) {
         if (dto == null) {
             return null;
@@ -0,0 +1,13 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class BusquedaNoDisponibleException extends RuntimeException {
+
+    public BusquedaNoDisponibleException() {
+        super();
+    }
+
+    @Override
+    public String getMessage() {
+        return "El índice de búsqueda de comercios se está construyendo";
+    }
+}
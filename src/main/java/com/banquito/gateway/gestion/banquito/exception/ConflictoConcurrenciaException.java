@@ -0,0 +1,15 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class ConflictoConcurrenciaException extends RuntimeException {
+    private final String codigo;
+
+    public ConflictoConcurrenciaException(String codigo) {
+        super();
+        this.codigo = codigo;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El registro fue modificado por otra operación, reintente con los datos actualizados: " + codigo;
+    }
+}
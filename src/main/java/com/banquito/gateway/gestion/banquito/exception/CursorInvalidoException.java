@@ -0,0 +1,15 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class CursorInvalidoException extends RuntimeException {
+    private final String cursor;
+
+    public CursorInvalidoException(String cursor) {
+        super();
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El token de paginación no es válido: " + cursor;
+    }
+}
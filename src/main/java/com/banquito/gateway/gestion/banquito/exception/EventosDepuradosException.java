@@ -0,0 +1,15 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class EventosDepuradosException extends RuntimeException {
+    private final long desde;
+
+    public EventosDepuradosException(long desde) {
+        super();
+        this.desde = desde;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Los eventos posteriores a la posición " + desde + " ya fueron depurados, sincronice el estado completo";
+    }
+}
@@ -0,0 +1,15 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class LoteInvalidoException extends RuntimeException {
+    private final String motivo;
+
+    public LoteInvalidoException(String motivo) {
+        super();
+        this.motivo = motivo;
+    }
+
+    @Override
+    public String getMessage() {
+        return "El lote no puede ser procesado: " + motivo;
+    }
+}
@@ -0,0 +1,19 @@
+package com.banquito.gateway.gestion.banquito.exception;
+
+public class UltimoUsoSaturadoException extends RuntimeException {
+    private final long segundosReintento;
+
+    public UltimoUsoSaturadoException(long segundosReintento) {
+        super();
+        this.segundosReintento = segundosReintento;
+    }
+
+    public long getSegundosReintento() {
+        return segundosReintento;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Demasiados registros de último uso pendientes de escritura, reintente en " + segundosReintento + " s";
+    }
+}
@@ -0,0 +1,37 @@
+package com.banquito.gateway.gestion.banquito.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "GTW_BLOQUEO_TAREA")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class BloqueoTarea {
+
+    @Id
+    @Column(name = "NOMBRE", nullable = false, length = 50)
+    private String nombre;
+
+    @Column(name = "NODO", nullable = false, length = 36)
+    private String nodo;
+
+    @Column(name = "BLOQUEADO_HASTA", nullable = false)
+    private LocalDateTime bloqueadoHasta;
+
+    @Override
+    public int hashCode() {
+        return nombre != null ? nombre.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BloqueoTarea that = (BloqueoTarea) o;
+        return nombre != null && nombre.equals(that.nombre);
+    }
+}
@@ -2,12 +2,22 @@ package com.banquito.gateway.gestion.banquito.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "GTW_COMERCIO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "GTW_COMERCIO",
+        uniqueConstraints = @UniqueConstraint(name = "UK_COMERCIO_RUC", columnNames = "RUC"),
+        indexes = {
+            @Index(name = "IDX_COMERCIO_CUENTA_IBAN", columnList = "CUENTA_IBAN"),
+            @Index(name = "IDX_COMERCIO_ESTADO", columnList = "ESTADO")
+        })
 @Getter
 @Setter
 @ToString(exclude = "posComercioList")
@@ -51,6 +61,11 @@ public class Comercio {
     @Column(name = "FECHA_SUSPENSION")
     private LocalDateTime fechaSuspension;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "comercio", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PosComercio> posComercioList = new ArrayList<>();
 
@@ -0,0 +1,64 @@
+package com.banquito.gateway.gestion.banquito.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "GTW_EVENTO_CAMBIO",
+        indexes = @Index(name = "IDX_EVENTO_CAMBIO_FECHA", columnList = "FECHA"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class EventoCambio {
+
+    public static final String ENTIDAD_COMERCIO = "COM";
+    public static final String ENTIDAD_POS = "POS";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_EVENTO", nullable = false)
+    private Long id;
+
+    @Column(name = "TIPO_ENTIDAD", nullable = false, length = 3)
+    private String tipoEntidad;
+
+    @Column(name = "CODIGO", nullable = false)
+    private String codigo;
+
+    @Column(name = "TIPO_CAMBIO", nullable = false, length = 20)
+    private String tipoCambio;
+
+    @Column(name = "ESTADO", length = 3)
+    private String estado;
+
+    @Column(name = "NODO", nullable = false, length = 36)
+    private String nodo;
+
+    @Column(name = "FECHA", nullable = false)
+    private LocalDateTime fecha;
+
+    public EventoCambio(String tipoEntidad, String codigo, String tipoCambio, String estado, String nodo,
+            LocalDateTime fecha) {
+        this.tipoEntidad = tipoEntidad;
+        this.codigo = codigo;
+        this.tipoCambio = tipoCambio;
+        this.estado = estado;
+        this.nodo = nodo;
+        this.fecha = fecha;
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventoCambio that = (EventoCambio) o;
+        return id != null && id.equals(that.id);
+    }
+}
@@ -2,10 +2,17 @@ package com.banquito.gateway.gestion.banquito.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "GTW_POS_COMERCIO")
+@Table(name = "GTW_POS_COMERCIO",
+        uniqueConstraints = @UniqueConstraint(name = "UK_POS_COMERCIO_DIRECCION_MAC", columnNames = "DIRECCION_MAC"),
+        indexes = {
+            @Index(name = "IDX_POS_COMERCIO_COMERCIO", columnList = "CODIGO_COMERCIO"),
+            @Index(name = "IDX_POS_COMERCIO_ESTADO", columnList = "ESTADO, ULTIMO_USO"),
+            @Index(name = "IDX_POS_COMERCIO_MODELO", columnList = "MODELO")
+        })
 @Getter
 @Setter
 @ToString(exclude = "comercio")
@@ -19,10 +26,13 @@ public class PosComercio {
     @Column(name = "MODELO", nullable = false, length = 10)
     private String modelo;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "CODIGO_COMERCIO", referencedColumnName = "CODIGO_COMERCIO", nullable = false)
     private Comercio comercio;
 
+    @Column(name = "CODIGO_COMERCIO", insertable = false, updatable = false)
+    private String codigoComercio;
+
     @Column(name = "DIRECCION_MAC", nullable = false, length = 32)
     private String direccionMac;
 
@@ -35,6 +45,11 @@ public class PosComercio {
     @Column(name = "ULTIMO_USO")
     private LocalDateTime ultimoUso;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+
     public PosComercio(String codigoPos) {
         this.codigoPos = codigoPos;
     }
@@ -0,0 +1,10 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gateway.gestion.banquito.model.BloqueoTarea;
+
+@Repository
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String>, BloqueoTareaRepositoryCustom {
+}
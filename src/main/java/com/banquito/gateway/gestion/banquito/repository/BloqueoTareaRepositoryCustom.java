@@ -0,0 +1,8 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import java.time.LocalDateTime;
+
+public interface BloqueoTareaRepositoryCustom {
+    boolean adquirir(String nombre, String nodo, LocalDateTime ahora, LocalDateTime hasta);
+    int liberar(String nombre, String nodo, LocalDateTime ahora);
+}
@@ -0,0 +1,40 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class BloqueoTareaRepositoryImpl implements BloqueoTareaRepositoryCustom {
+
+    private static final String SQL_RENOVAR =
+            "UPDATE GTW_BLOQUEO_TAREA SET NODO = ?, BLOQUEADO_HASTA = ? WHERE NOMBRE = ? AND BLOQUEADO_HASTA <= ?";
+    private static final String SQL_CREAR =
+            "INSERT INTO GTW_BLOQUEO_TAREA (NOMBRE, NODO, BLOQUEADO_HASTA) VALUES (?, ?, ?)";
+    private static final String SQL_LIBERAR =
+            "UPDATE GTW_BLOQUEO_TAREA SET BLOQUEADO_HASTA = ? WHERE NOMBRE = ? AND NODO = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BloqueoTareaRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean adquirir(String nombre, String nodo, LocalDateTime ahora, LocalDateTime hasta) {
+        if (this.jdbcTemplate.update(SQL_RENOVAR, nodo, Timestamp.valueOf(hasta), nombre, Timestamp.valueOf(ahora)) > 0) {
+            return true;
+        }
+        try {
+            return this.jdbcTemplate.update(SQL_CREAR, nombre, nodo, Timestamp.valueOf(hasta)) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int liberar(String nombre, String nodo, LocalDateTime ahora) {
+        return this.jdbcTemplate.update(SQL_LIBERAR, Timestamp.valueOf(ahora), nombre, nodo);
+    }
+}
@@ -1,20 +1,73 @@
 package com.banquito.gateway.gestion.banquito.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioClaveView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioInfoView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioNombreView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioVersionView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioView;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ComercioRepository extends JpaRepository<Comercio, String> {
+public interface ComercioRepository extends JpaRepository<Comercio, String>, ComercioRepositoryCustom {
     Page<Comercio> findAll(Pageable pageable);
     List<Comercio> findByEstado(String estado);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Comercio> findByRuc(String ruc);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ComercioView> findViewByRuc(String ruc);
+
+    boolean existsByRuc(String ruc);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<ComercioVersionView> findVersionByCodigoComercio(String codigoComercio);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Comercio> findBloqueadoByCodigoComercio(String codigoComercio);
+
+    List<ComercioClaveView> findByRucInOrCodigoComercioIn(Collection<String> rucs, Collection<String> codigosComercio);
+
+    List<ComercioNombreView> findNombresByCodigoComercioIn(Collection<String> codigosComercio);
     List<Comercio> findBySwiftBanco(String swiftBanco);
-    List<Comercio> findByNombreComercialContainingIgnoreCase(String nombreComercial);
+    List<ComercioView> findByNombreComercialContainingIgnoreCase(String nombreComercial);
+    Optional<ComercioInfoView> findInfoByPosComercioListCodigoPos(String codigoPos);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Comercio> findByCuentaIban(String cuentaIban);
-} 
\ No newline at end of file
+
+    List<Comercio> findByCodigoComercioGreaterThanOrderByCodigoComercioAsc(String codigoComercio, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Comercio> streamAllBy();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ComercioNombreView> streamNombresBy();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ComercioInfoView> streamInfoByEstado(String estado);
+}
\ No newline at end of file
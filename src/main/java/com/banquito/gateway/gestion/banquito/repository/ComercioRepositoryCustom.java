@@ -0,0 +1,7 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import java.time.LocalDateTime;
+
+public interface ComercioRepositoryCustom {
+    int suspender(String codigoComercio, LocalDateTime fechaSuspension);
+}
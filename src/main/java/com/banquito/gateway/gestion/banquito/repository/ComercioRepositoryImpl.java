@@ -0,0 +1,24 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class ComercioRepositoryImpl implements ComercioRepositoryCustom {
+
+    private static final String SQL_SUSPENDER =
+            "UPDATE GTW_COMERCIO SET ESTADO = 'SUS', FECHA_SUSPENSION = ?, VERSION = VERSION + 1"
+            + " WHERE CODIGO_COMERCIO = ? AND ESTADO <> 'SUS'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ComercioRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int suspender(String codigoComercio, LocalDateTime fechaSuspension) {
+        return this.jdbcTemplate.update(SQL_SUSPENDER, Timestamp.valueOf(fechaSuspension), codigoComercio);
+    }
+}
@@ -0,0 +1,16 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventoCambioRepository extends JpaRepository<EventoCambio, Long>, EventoCambioRepositoryCustom {
+    List<EventoCambio> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    Optional<EventoCambio> findFirstByOrderByIdDesc();
+    Optional<EventoCambio> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,11 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoCambioRepositoryCustom {
+    void registrar(List<EventoCambio> eventos);
+    int eliminarAnterioresA(LocalDateTime limite);
+}
@@ -0,0 +1,44 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class EventoCambioRepositoryImpl implements EventoCambioRepositoryCustom {
+
+    private static final String SQL_REGISTRAR =
+            "INSERT INTO GTW_EVENTO_CAMBIO (TIPO_ENTIDAD, CODIGO, TIPO_CAMBIO, ESTADO, NODO, FECHA)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ELIMINAR_ANTERIORES =
+            "DELETE FROM GTW_EVENTO_CAMBIO WHERE FECHA < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventoCambioRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void registrar(List<EventoCambio> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        this.jdbcTemplate.batchUpdate(SQL_REGISTRAR, eventos, eventos.size(), (ps, evento) -> {
+            ps.setString(1, evento.getTipoEntidad());
+            ps.setString(2, evento.getCodigo());
+            ps.setString(3, evento.getTipoCambio());
+            ps.setString(4, evento.getEstado());
+            ps.setString(5, evento.getNodo());
+            ps.setTimestamp(6, Timestamp.valueOf(evento.getFecha()));
+        });
+    }
+
+    @Override
+    public int eliminarAnterioresA(LocalDateTime limite) {
+        return this.jdbcTemplate.update(SQL_ELIMINAR_ANTERIORES, Timestamp.valueOf(limite));
+    }
+}
@@ -1,19 +1,53 @@
 package com.banquito.gateway.gestion.banquito.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioActivoView;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioClaveView;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioVersionView;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioView;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PosComercioRepository extends JpaRepository<PosComercio, String> {
+public interface PosComercioRepository extends JpaRepository<PosComercio, String>, PosComercioRepositoryCustom {
     Page<PosComercio> findAll(Pageable pageable);
-    Page<PosComercio> findByComercioCodigoComercio(String codigoComercio, Pageable pageable);
+    Page<PosComercioView> findByCodigoComercio(String codigoComercio, Pageable pageable);
     List<PosComercio> findByComercioCodigoComercio(String codigoComercio);
     List<PosComercio> findByEstado(String estado);
     List<PosComercio> findByDireccionMac(String direccionMac);
-    List<PosComercio> findByModelo(String modelo);
-} 
\ No newline at end of file
+    List<PosComercioView> findByModelo(String modelo);
+    List<PosComercio> findByCodigoPosGreaterThanOrderByCodigoPosAsc(String codigoPos, Limit limit);
+    List<PosComercioClaveView> findByCodigoPosInOrDireccionMacIn(Collection<String> codigosPos, Collection<String> direccionesMac);
+    long countByComercioCodigoComercio(String codigoComercio);
+
+    @EntityGraph(attributePaths = "comercio")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PosComercio> findConComercioByCodigoPosIn(Collection<String> codigosPos);
+
+    boolean existsByDireccionMac(String direccionMac);
+    Optional<PosComercioVersionView> findVersionByCodigoPos(String codigoPos);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PosComercio> streamAllBy();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PosComercioActivoView> streamActivosByEstadoAndComercioEstado(String estado, String estadoComercio);
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface PosComercioRepositoryCustom {
+    int actualizarUltimoUso(Map<String, LocalDateTime> ultimosUsos);
+    List<String> buscarCodigosActivosSinUsoDesde(LocalDateTime limite, String despuesDeCodigoPos, int tamanio);
+    List<String> inactivarSinUsoDesde(Collection<String> codigosPos, LocalDateTime limite);
+    int cambiarEstado(String codigoPos, String estadoActual, String nuevoEstado, LocalDateTime fechaActivacion);
+}
@@ -0,0 +1,87 @@
+package com.banquito.gateway.gestion.banquito.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class PosComercioRepositoryImpl implements PosComercioRepositoryCustom {
+
+    private static final String SQL_ACTUALIZAR_ULTIMO_USO =
+            "UPDATE GTW_POS_COMERCIO SET ULTIMO_USO = ? WHERE CODIGO_POS = ? AND ESTADO = 'ACT'";
+    private static final String SQL_BUSCAR_ACTIVOS_SIN_USO =
+            "SELECT CODIGO_POS FROM GTW_POS_COMERCIO WHERE ESTADO = 'ACT' AND ULTIMO_USO < :limite"
+            + " AND CODIGO_POS > :despuesDe ORDER BY CODIGO_POS LIMIT :tamanio";
+    private static final String SQL_BLOQUEAR_SIN_USO =
+            "SELECT CODIGO_POS FROM GTW_POS_COMERCIO WHERE ESTADO = 'ACT' AND ULTIMO_USO < :limite"
+            + " AND CODIGO_POS IN (:codigos) FOR UPDATE";
+    private static final String SQL_INACTIVAR =
+            "UPDATE GTW_POS_COMERCIO SET ESTADO = 'INA', VERSION = VERSION + 1 WHERE CODIGO_POS IN (:codigos)";
+
+    private static final String SQL_CAMBIAR_ESTADO =
+            "UPDATE GTW_POS_COMERCIO SET ESTADO = ?, FECHA_ACTIVACION = COALESCE(?, FECHA_ACTIVACION),"
+            + " VERSION = VERSION + 1 WHERE CODIGO_POS = ? AND ESTADO = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PosComercioRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public int actualizarUltimoUso(Map<String, LocalDateTime> ultimosUsos) {
+        if (ultimosUsos.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> parametros = new ArrayList<>(ultimosUsos.size());
+        for (Map.Entry<String, LocalDateTime> entrada : ultimosUsos.entrySet()) {
+            parametros.add(new Object[] { Timestamp.valueOf(entrada.getValue()), entrada.getKey() });
+        }
+        int actualizados = 0;
+        for (int filas : this.jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_ULTIMO_USO, parametros)) {
+            actualizados += Math.max(filas, 0);
+        }
+        return actualizados;
+    }
+
+    @Override
+    public List<String> buscarCodigosActivosSinUsoDesde(LocalDateTime limite, String despuesDeCodigoPos, int tamanio) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("limite", Timestamp.valueOf(limite))
+                .addValue("despuesDe", despuesDeCodigoPos)
+                .addValue("tamanio", tamanio);
+        return this.namedJdbcTemplate.queryForList(SQL_BUSCAR_ACTIVOS_SIN_USO, parametros, String.class);
+    }
+
+    @Override
+    public List<String> inactivarSinUsoDesde(Collection<String> codigosPos, LocalDateTime limite) {
+        if (codigosPos.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("limite", Timestamp.valueOf(limite))
+                .addValue("codigos", codigosPos);
+        List<String> bloqueados = this.namedJdbcTemplate.queryForList(SQL_BLOQUEAR_SIN_USO, parametros, String.class);
+        if (!bloqueados.isEmpty()) {
+            this.namedJdbcTemplate.update(SQL_INACTIVAR, new MapSqlParameterSource("codigos", bloqueados));
+        }
+        return bloqueados;
+    }
+
+    @Override
+    public int cambiarEstado(String codigoPos, String estadoActual, String nuevoEstado, LocalDateTime fechaActivacion) {
+        SqlParameterValue fecha = new SqlParameterValue(Types.TIMESTAMP,
+                fechaActivacion != null ? Timestamp.valueOf(fechaActivacion) : null);
+        return this.jdbcTemplate.update(SQL_CAMBIAR_ESTADO, nuevoEstado, fecha, codigoPos, estadoActual);
+    }
+}
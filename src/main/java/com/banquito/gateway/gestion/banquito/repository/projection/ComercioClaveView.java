@@ -0,0 +1,6 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+public interface ComercioClaveView {
+    String getCodigoComercio();
+    String getRuc();
+}
@@ -0,0 +1,9 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+public interface ComercioInfoView {
+    String getCodigoComercio();
+    String getNombreComercial();
+    String getSwiftBanco();
+    String getCuentaIban();
+    String getEstado();
+}
@@ -0,0 +1,7 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+public interface ComercioNombreView {
+    String getCodigoComercio();
+    String getNombreComercial();
+    String getRazonSocial();
+}
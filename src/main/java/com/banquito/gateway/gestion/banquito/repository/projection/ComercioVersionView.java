@@ -0,0 +1,5 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+public interface ComercioVersionView {
+    Long getVersion();
+}
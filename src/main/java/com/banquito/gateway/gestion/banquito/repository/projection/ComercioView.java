@@ -0,0 +1,18 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ComercioView {
+    String getCodigoComercio();
+    String getCodigoInterno();
+    String getRuc();
+    String getRazonSocial();
+    String getNombreComercial();
+    LocalDateTime getFechaCreacion();
+    Integer getCodigoComision();
+    String getEstado();
+    String getSwiftBanco();
+    String getCuentaIban();
+    LocalDateTime getFechaActivacion();
+    LocalDateTime getFechaSuspension();
+}
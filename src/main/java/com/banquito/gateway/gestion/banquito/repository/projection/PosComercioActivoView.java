@@ -0,0 +1,6 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+public interface PosComercioActivoView {
+    String getCodigoPos();
+    String getCodigoComercio();
+}
@@ -0,0 +1,8 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface PosComercioVersionView {
+    Long getVersion();
+    LocalDateTime getUltimoUso();
+}
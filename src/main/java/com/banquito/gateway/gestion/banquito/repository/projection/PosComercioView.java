@@ -0,0 +1,13 @@
+package com.banquito.gateway.gestion.banquito.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface PosComercioView {
+    String getCodigoPos();
+    String getModelo();
+    String getCodigoComercio();
+    String getDireccionMac();
+    String getEstado();
+    LocalDateTime getFechaActivacion();
+    LocalDateTime getUltimoUso();
+}
@@ -0,0 +1,40 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.repository.BloqueoTareaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class BloqueoTareas {
+
+    private final BloqueoTareaRepository bloqueoTareaRepository;
+    private final String nodo;
+
+    public BloqueoTareas(
+            BloqueoTareaRepository bloqueoTareaRepository,
+            @Value("${banquito.bloqueo-tareas.nodo:#{T(java.util.UUID).randomUUID().toString()}}") String nodo) {
+        this.bloqueoTareaRepository = bloqueoTareaRepository;
+        this.nodo = nodo;
+    }
+
+    public <T> Optional<T> ejecutar(String nombre, Duration duracionMaxima, Supplier<T> tarea) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (!this.bloqueoTareaRepository.adquirir(nombre, this.nodo, ahora, ahora.plus(duracionMaxima))) {
+            log.debug("Tarea {} en ejecución en otro nodo, se omite", nombre);
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(tarea.get());
+        } finally {
+            this.bloqueoTareaRepository.liberar(nombre, this.nodo, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+final class Caches {
+
+    private Caches() {
+    }
+
+    static <K, V> V obtener(AsyncCache<K, V> cache, K clave, Function<K, V> cargador) {
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> futuro = cache.get(clave, (k, ejecutor) -> propio);
+        if (futuro == propio) {
+            try {
+                V valor = cargador.apply(clave);
+                propio.complete(valor);
+                return valor;
+            } catch (Throwable e) {
+                propio.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return esperar(futuro);
+    }
+
+    static <K, V> Map<K, V> obtenerTodos(AsyncCache<K, V> cache, Set<K> claves,
+            Function<Set<? extends K>, Map<K, V>> cargador) {
+        return esperar(cache.getAll(claves,
+                (faltantes, ejecutor) -> CompletableFuture.completedFuture(cargador.apply(faltantes))));
+    }
+
+    static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+final class CargaUnica<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final Counter ejecutadas;
+    private final Counter compartidas;
+    private final UnaryOperator<V> copia;
+
+    CargaUnica(String nombre, UnaryOperator<V> copia, MeterRegistry meterRegistry) {
+        this.copia = copia;
+        this.ejecutadas = Counter.builder("banquito.carga-unica.ejecutadas")
+                .tag("nombre", nombre)
+                .register(meterRegistry);
+        this.compartidas = Counter.builder("banquito.carga-unica.compartidas")
+                .tag("nombre", nombre)
+                .register(meterRegistry);
+        Gauge.builder("banquito.carga-unica.en-curso", this.enCurso, ConcurrentHashMap::size)
+                .tag("nombre", nombre)
+                .register(meterRegistry);
+    }
+
+    V obtener(K clave, Function<K, V> cargador) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return cargador.apply(clave);
+        }
+        CompletableFuture<V> propio = new CompletableFuture<>();
+        CompletableFuture<V> existente = this.enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            this.compartidas.increment();
+            return copiar(Caches.esperar(existente));
+        }
+        this.ejecutadas.increment();
+        try {
+            V valor = cargador.apply(clave);
+            propio.complete(copiar(valor));
+            return valor;
+        } catch (Throwable e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.enCurso.remove(clave, propio);
+        }
+    }
+
+    private V copiar(V valor) {
+        return valor != null ? this.copia.apply(valor) : null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class ComercioInfoCache {
+
+    private static final String NOMBRE_CACHE = "comercioInfoPos";
+
+    private final AsyncCache<String, ComercioInfoDTO> cache;
+
+    public ComercioInfoCache(
+            @Value("${banquito.comercio-info.cache.maximo:100000}") long maximo,
+            @Value("${banquito.comercio-info.cache.expiracion:10m}") Duration expiracion,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, NOMBRE_CACHE);
+        log.info("Cache de información de comercio por POS configurada: máximo {} entradas, expiración {}", maximo, expiracion);
+    }
+
+    public ComercioInfoDTO obtener(String codigoPos, Function<String, ComercioInfoDTO> cargador) {
+        return Caches.obtener(this.cache, codigoPos, cargador);
+    }
+
+    public Map<String, ComercioInfoDTO> obtenerTodos(Set<String> codigosPos,
+            Function<Set<? extends String>, Map<String, ComercioInfoDTO>> cargador) {
+        return Caches.obtenerTodos(this.cache, codigosPos, cargador);
+    }
+
+    public void invalidarPos(String codigoPos) {
+        Transacciones.alConfirmar(() -> this.cache.synchronous().invalidate(codigoPos));
+    }
+
+    public void invalidarComercio(String codigoComercio) {
+        Transacciones.alConfirmar(() -> this.cache.synchronous().asMap().values()
+                .removeIf(info -> codigoComercio.equals(info.getCodigo_comercio())));
+    }
+}
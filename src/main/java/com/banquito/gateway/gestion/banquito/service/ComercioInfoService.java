@@ -0,0 +1,90 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoPosDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ComercioInfoService {
+
+    private final ComercioService comercioService;
+    private final PosComercioService posComercioService;
+    private final ComercioMapper comercioMapper;
+    private final ComercioInfoCache comercioInfoCache;
+    private final RegistroPosActivos registroPosActivos;
+    private final int maximoLote;
+
+    public ComercioInfoService(ComercioService comercioService, PosComercioService posComercioService,
+            ComercioMapper comercioMapper, ComercioInfoCache comercioInfoCache, RegistroPosActivos registroPosActivos,
+            @Value("${banquito.comercio-info.lote.maximo:500}") int maximoLote) {
+        this.comercioService = comercioService;
+        this.posComercioService = posComercioService;
+        this.comercioMapper = comercioMapper;
+        this.comercioInfoCache = comercioInfoCache;
+        this.registroPosActivos = registroPosActivos;
+        this.maximoLote = maximoLote;
+    }
+
+    public ComercioInfoDTO findByPos(String codigoPos) {
+        ComercioInfoDTO info = this.registroPosActivos.buscar(codigoPos);
+        if (info != null) {
+            return info;
+        }
+        return this.comercioInfoCache.obtener(codigoPos, this::cargar);
+    }
+
+    public List<ComercioInfoPosDTO> findByPosLote(List<String> codigosPos) {
+        if (codigosPos.isEmpty()) {
+            throw new LoteInvalidoException("debe indicar al menos un POS");
+        }
+        Set<String> codigos = new LinkedHashSet<>(codigosPos);
+        if (codigos.size() > this.maximoLote) {
+            throw new LoteInvalidoException("se permiten máximo " + this.maximoLote + " POS por consulta");
+        }
+        if (codigos.stream().anyMatch(codigoPos -> codigoPos == null || codigoPos.isBlank())) {
+            throw new LoteInvalidoException("los códigos de POS no pueden ser nulos ni vacíos");
+        }
+        Map<String, ComercioInfoDTO> infos = new HashMap<>();
+        Set<String> faltantes = new LinkedHashSet<>();
+        for (String codigoPos : codigos) {
+            ComercioInfoDTO info = this.registroPosActivos.buscar(codigoPos);
+            if (info != null) {
+                infos.put(codigoPos, info);
+            } else {
+                faltantes.add(codigoPos);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            infos.putAll(this.comercioInfoCache.obtenerTodos(faltantes, this::cargarTodos));
+        }
+        return codigos.stream()
+                .map(codigoPos -> this.comercioMapper.toInfoPosDTO(codigoPos, infos.get(codigoPos)))
+                .toList();
+    }
+
+    private ComercioInfoDTO cargar(String codigoPos) {
+        log.debug("Cargando información del comercio para el POS {} desde la base de datos", codigoPos);
+        return this.comercioMapper.toInfoDTO(this.comercioService.findInfoByPos(codigoPos));
+    }
+
+    private Map<String, ComercioInfoDTO> cargarTodos(Set<? extends String> codigosPos) {
+        log.debug("Cargando información del comercio para {} POS desde la base de datos", codigosPos.size());
+        return this.posComercioService.findConComercio(List.copyOf(codigosPos)).stream()
+                .collect(Collectors.toMap(PosComercio::getCodigoPos,
+                        posComercio -> this.comercioMapper.toInfoDTO(posComercio.getComercio())));
+    }
+}
@@ -0,0 +1,197 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResultadoLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResumenLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioClaveView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ComercioLoteService {
+
+    private static final String CREADO = "CREADO";
+    private static final String RECHAZADO = "RECHAZADO";
+    private static final int MAXIMO_INTENTOS = 3;
+
+    private final ComercioService comercioService;
+    private final ComercioRepository comercioRepository;
+    private final ComercioMapper comercioMapper;
+    private final IndiceBusquedaComercio indiceBusquedaComercio;
+    private final InvalidacionBus invalidacionBus;
+    private final RegistroAuditoria registroAuditoria;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maximoRegistros;
+    private final int tamanioBatch;
+
+    public ComercioLoteService(ComercioService comercioService, ComercioRepository comercioRepository,
+            ComercioMapper comercioMapper, IndiceBusquedaComercio indiceBusquedaComercio,
+            InvalidacionBus invalidacionBus, RegistroAuditoria registroAuditoria, Validator validator,
+            EntityManager entityManager, PlatformTransactionManager transactionManager,
+            @Value("${banquito.lote.maximo-registros:10000}") int maximoRegistros,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int tamanioBatch) {
+        this.comercioService = comercioService;
+        this.comercioRepository = comercioRepository;
+        this.comercioMapper = comercioMapper;
+        this.indiceBusquedaComercio = indiceBusquedaComercio;
+        this.invalidacionBus = invalidacionBus;
+        this.registroAuditoria = registroAuditoria;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maximoRegistros = maximoRegistros;
+        this.tamanioBatch = tamanioBatch;
+    }
+
+    public ResumenLoteDTO crear(List<ComercioDTO> comercios) {
+        if (comercios.size() > this.maximoRegistros) {
+            throw new LoteInvalidoException("se permiten máximo " + this.maximoRegistros + " comercios por lote");
+        }
+        log.info("Creando lote de {} comercios", comercios.size());
+
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[comercios.size()];
+        List<Integer> candidatos = new ArrayList<>(comercios.size());
+        for (int i = 0; i < comercios.size(); i++) {
+            String error = validar(comercios.get(i));
+            if (error != null) {
+                resultados[i] = resultado(i, comercios.get(i), RECHAZADO, error);
+            } else {
+                candidatos.add(i);
+            }
+        }
+
+        int creados = 0;
+        for (int intento = 1; !candidatos.isEmpty(); intento++) {
+            try {
+                creados = this.transactionTemplate.execute(status -> insertar(comercios, candidatos, resultados));
+                break;
+            } catch (RuntimeException e) {
+                String restriccion = ComercioService.restriccionViolada(e);
+                if (restriccion == null) {
+                    throw e;
+                }
+                if (intento < MAXIMO_INTENTOS) {
+                    log.warn("Conflicto concurrente al crear el lote de comercios ({}), reintento {}", restriccion, intento);
+                    continue;
+                }
+                log.error("No se pudo crear el lote de comercios tras {} intentos: {}", intento, e.getMessage());
+                String mensaje = restriccion.contains(ComercioService.RESTRICCION_RUC)
+                        ? "Ya existe un comercio registrado con el RUC proporcionado"
+                        : "No se pudo registrar el comercio por conflicto con datos existentes";
+                for (Integer i : candidatos) {
+                    if (CREADO.equals(resultados[i].getResultado())) {
+                        resultados[i] = resultado(i, comercios.get(i), RECHAZADO, mensaje);
+                    }
+                }
+                break;
+            }
+        }
+
+        ResumenLoteDTO resumen = new ResumenLoteDTO();
+        resumen.setTotal(comercios.size());
+        resumen.setCreados(creados);
+        resumen.setRechazados(comercios.size() - creados);
+        resumen.setResultados(Arrays.asList(resultados));
+        log.info("Lote de comercios procesado: {} creados, {} rechazados", creados, resumen.getRechazados());
+        return resumen;
+    }
+
+    private int insertar(List<ComercioDTO> comercios, List<Integer> candidatos, ResultadoLoteDTO[] resultados) {
+        Set<String> rucs = candidatos.stream().map(i -> comercios.get(i).getRuc()).collect(Collectors.toSet());
+        Set<String> codigos = candidatos.stream().map(i -> comercios.get(i).getCodigoComercio()).collect(Collectors.toSet());
+        Set<String> rucsExistentes = new HashSet<>();
+        Set<String> codigosExistentes = new HashSet<>();
+        for (ComercioClaveView existente : this.comercioRepository.findByRucInOrCodigoComercioIn(rucs, codigos)) {
+            rucsExistentes.add(existente.getRuc());
+            codigosExistentes.add(existente.getCodigoComercio());
+        }
+
+        Set<String> rucsLote = new HashSet<>();
+        Set<String> codigosLote = new HashSet<>();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<String> codigosCreados = new ArrayList<>(candidatos.size());
+        for (Integer i : candidatos) {
+            ComercioDTO dto = comercios.get(i);
+            if (rucsExistentes.contains(dto.getRuc()) || !rucsLote.add(dto.getRuc())) {
+                resultados[i] = resultado(i, dto, RECHAZADO, "Ya existe un comercio registrado con el RUC proporcionado");
+                continue;
+            }
+            if (codigosExistentes.contains(dto.getCodigoComercio()) || !codigosLote.add(dto.getCodigoComercio())) {
+                resultados[i] = resultado(i, dto, RECHAZADO, "Ya existe un comercio con el código: " + dto.getCodigoComercio());
+                continue;
+            }
+
+            Comercio comercio = this.comercioMapper.toModel(dto);
+            comercio.setFechaCreacion(ahora);
+            comercio.setFechaActivacion(ahora);
+            comercio.setFechaSuspension(null);
+            comercio.setEstado("ACT");
+            this.entityManager.persist(comercio);
+            this.indiceBusquedaComercio.indexarAlConfirmar(comercio.getCodigoComercio(),
+                    comercio.getNombreComercial(), comercio.getRazonSocial());
+            resultados[i] = resultado(i, dto, CREADO, null);
+            codigosCreados.add(comercio.getCodigoComercio());
+
+            if (codigosCreados.size() % this.tamanioBatch == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+        this.entityManager.flush();
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_COMERCIO, codigosCreados, InvalidacionBus.CAMBIO_CREACION, "ACT");
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_COMERCIO, codigosCreados, InvalidacionBus.CAMBIO_CREACION, "ACT");
+        return codigosCreados.size();
+    }
+
+    private String validar(ComercioDTO dto) {
+        if (dto == null) {
+            return "El registro está vacío";
+        }
+        Set<ConstraintViolation<ComercioDTO>> violaciones = this.validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            this.comercioService.validarFormato(this.comercioMapper.toModel(dto));
+        } catch (BusinessException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private ResultadoLoteDTO resultado(int indice, ComercioDTO dto, String resultado, String mensaje) {
+        ResultadoLoteDTO dtoResultado = new ResultadoLoteDTO();
+        dtoResultado.setIndice(indice);
+        dtoResultado.setCodigo(dto != null ? dto.getCodigoComercio() : null);
+        dtoResultado.setResultado(resultado);
+        dtoResultado.setMensaje(mensaje);
+        return dtoResultado;
+    }
+}
@@ -1,111 +1,240 @@
 package com.banquito.gateway.gestion.banquito.service;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
 import lombok.extern.slf4j.Slf4j;
 
+import com.banquito.gateway.gestion.banquito.config.EnrutadorDataSource;
+import com.banquito.gateway.gestion.banquito.config.LecturaPrimaria;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
 import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioInfoView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioVersionView;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioView;
 import com.banquito.gateway.gestion.banquito.exception.ComercioNotFoundException;
 import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.exception.BusquedaNoDisponibleException;
+import com.banquito.gateway.gestion.banquito.exception.PosComercioNotFoundException;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ComercioService {
 
-    private static final Pattern RUC_PATTERN = Pattern.compile("^[0-9]{13}$");
-    private static final Pattern SWIFT_PATTERN = Pattern.compile("^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$");
-    private static final Pattern IBAN_PATTERN = Pattern.compile("^[A-Z]{2}[0-9]{2}[A-Z0-9]{1,30}$");
+    static final Pattern RUC_PATTERN = Pattern.compile("^[0-9]{13}$");
+    static final Pattern SWIFT_PATTERN = Pattern.compile("^[A-Z]{6}[A-Z0-9]{2}([A-Z0-9]{3})?$");
+    static final Pattern IBAN_PATTERN = Pattern.compile("^[A-Z]{2}[0-9]{2}[A-Z0-9]{1,30}$");
     private static final int MIN_MONTO_TRANSACCION = 1;
     private static final int MAX_MONTO_TRANSACCION = 10000;
+    static final String RESTRICCION_RUC = "UK_COMERCIO_RUC";
 
     private final ComercioRepository comercioRepository;
+    private final InvalidadorCachesLocales invalidadorCachesLocales;
+    private final IndiceBusquedaComercio indiceBusquedaComercio;
+    private final InvalidacionBus invalidacionBus;
+    private final RegistroAuditoria registroAuditoria;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CargaUnica<String, Comercio> cargaPorCodigo;
 
-    public ComercioService(ComercioRepository comercioRepository) {
+    public ComercioService(ComercioRepository comercioRepository,
+            InvalidadorCachesLocales invalidadorCachesLocales, IndiceBusquedaComercio indiceBusquedaComercio,
+            InvalidacionBus invalidacionBus, RegistroAuditoria registroAuditoria,
+            EntityManager entityManager, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.comercioRepository = comercioRepository;
+        this.invalidadorCachesLocales = invalidadorCachesLocales;
+        this.indiceBusquedaComercio = indiceBusquedaComercio;
+        this.invalidacionBus = invalidacionBus;
+        this.registroAuditoria = registroAuditoria;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cargaPorCodigo = new CargaUnica<>("comercio", ComercioService::copiar, meterRegistry);
     }
 
     @Transactional(readOnly = true)
     public Page<Comercio> findAll(Pageable pageable) {
-        log.info("Obteniendo todos los comercios paginados");
+        log.debug("Obteniendo todos los comercios paginados");
         return this.comercioRepository.findAll(pageable);
     }
 
     @Transactional(readOnly = true)
+    public List<Comercio> findSiguientes(String despuesDeCodigoComercio, int cantidad) {
+        log.debug("Obteniendo {} comercios a partir del código: {}", cantidad, despuesDeCodigoComercio);
+        return this.comercioRepository.findByCodigoComercioGreaterThanOrderByCodigoComercioAsc(
+                despuesDeCodigoComercio, Limit.of(cantidad));
+    }
+
     public Comercio findById(String codigoComercio) {
-        log.info("Buscando comercio con código: {}", codigoComercio);
-        return this.comercioRepository.findById(codigoComercio)
-                .orElseThrow(() -> new ComercioNotFoundException(codigoComercio));
+        log.debug("Buscando comercio con código: {}", codigoComercio);
+        return this.cargaPorCodigo.obtener(codigoComercio, codigo -> EnrutadorDataSource.enPrimaria(
+                () -> this.transactionTemplate.execute(status -> this.comercioRepository.findById(codigo)
+                        .orElseThrow(() -> new ComercioNotFoundException(codigo)))));
     }
 
     @Transactional
     public Comercio create(Comercio comercio) {
-        log.info("Creando nuevo comercio: {}", comercio);
+        log.debug("Creando nuevo comercio con RUC: {}", comercio.getRuc());
         
-        validarRuc(comercio.getRuc());
-        validarSwiftBanco(comercio.getSwiftBanco());
-        validarIban(comercio.getCuentaIban());
+        validarFormato(comercio);
+        validarCodigoDisponible(comercio.getCodigoComercio());
         validarComercioExistente(comercio.getRuc());
 
         comercio.setFechaCreacion(LocalDateTime.now());
         comercio.setFechaActivacion(LocalDateTime.now());
         comercio.setEstado("ACT");
-        return this.comercioRepository.save(comercio);
+        try {
+            Comercio guardado = this.comercioRepository.saveAndFlush(comercio);
+            this.indiceBusquedaComercio.indexarAlConfirmar(guardado.getCodigoComercio(),
+                    guardado.getNombreComercial(), guardado.getRazonSocial());
+            this.invalidacionBus.publicar(EventoCambio.ENTIDAD_COMERCIO, guardado.getCodigoComercio(),
+                    InvalidacionBus.CAMBIO_CREACION, guardado.getEstado());
+            this.registroAuditoria.registrar(EventoCambio.ENTIDAD_COMERCIO, guardado.getCodigoComercio(),
+                    InvalidacionBus.CAMBIO_CREACION, guardado.getEstado());
+            return guardado;
+        } catch (DataIntegrityViolationException e) {
+            log.error("Error al guardar el comercio: {}", e.getMessage());
+            if (violaRestriccion(e, RESTRICCION_RUC)) {
+                throw new BusinessException("Ya existe un comercio registrado con el RUC proporcionado");
+            }
+            throw new BusinessException("No se pudo registrar el comercio por conflicto con datos existentes");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @LecturaPrimaria
+    public Long findVersion(String codigoComercio) {
+        log.debug("Consultando versión del comercio con código: {}", codigoComercio);
+        return this.comercioRepository.findVersionByCodigoComercio(codigoComercio)
+                .map(ComercioVersionView::getVersion)
+                .orElseThrow(() -> new ComercioNotFoundException(codigoComercio));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Comercio bloquear(String codigoComercio) {
+        log.debug("Bloqueando comercio con código: {}", codigoComercio);
+        Comercio cargado = this.entityManager.getReference(Comercio.class, codigoComercio);
+        if (Hibernate.isInitialized(cargado)) {
+            try {
+                this.entityManager.refresh(cargado, LockModeType.PESSIMISTIC_WRITE);
+                return cargado;
+            } catch (EntityNotFoundException e) {
+                throw new ComercioNotFoundException(codigoComercio);
+            }
+        }
+        return this.comercioRepository.findBloqueadoByCodigoComercio(codigoComercio)
+                .orElseThrow(() -> new ComercioNotFoundException(codigoComercio));
     }
 
     @Transactional
     public Comercio suspender(String codigoComercio) {
-        log.info("Suspendiendo comercio con código: {}", codigoComercio);
-        Comercio comercio = findById(codigoComercio);
-        
-        if ("SUS".equals(comercio.getEstado())) {
+        log.debug("Suspendiendo comercio con código: {}", codigoComercio);
+        if (this.comercioRepository.suspender(codigoComercio, LocalDateTime.now()) == 0) {
+            if (!this.comercioRepository.existsById(codigoComercio)) {
+                throw new ComercioNotFoundException(codigoComercio);
+            }
             throw new BusinessException("El comercio ya se encuentra suspendido");
         }
 
-        comercio.setEstado("SUS");
-        comercio.setFechaSuspension(LocalDateTime.now());
-        return this.comercioRepository.save(comercio);
+        this.invalidadorCachesLocales.invalidarComercio(codigoComercio);
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_COMERCIO, codigoComercio, InvalidacionBus.CAMBIO_SUSPENSION,
+                "SUS");
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_COMERCIO, codigoComercio, InvalidacionBus.CAMBIO_SUSPENSION,
+                "SUS");
+        return findById(codigoComercio);
     }
 
     @Transactional(readOnly = true)
-    public List<Comercio> findByNombreComercial(String nombreComercial) {
-        log.info("Buscando comercios por nombre comercial: {}", nombreComercial);
+    public List<ComercioView> findByNombreComercial(String nombreComercial) {
+        log.debug("Buscando comercios por nombre comercial: {}", nombreComercial);
         return this.comercioRepository.findByNombreComercialContainingIgnoreCase(nombreComercial);
     }
 
     @Transactional(readOnly = true)
+    public PaginaBusquedaComercio buscar(String consulta, String despuesDe, int cantidad) {
+        log.debug("Buscando comercios por prefijo: {}", consulta);
+        if (!this.indiceBusquedaComercio.isListo()) {
+            throw new BusquedaNoDisponibleException();
+        }
+        IndiceBusquedaComercio.Resultado resultado = this.indiceBusquedaComercio.buscar(consulta, despuesDe, cantidad);
+        List<IndiceBusquedaComercio.Coincidencia> coincidencias = resultado.coincidencias();
+        Map<String, Comercio> comercios = this.comercioRepository.findAllById(coincidencias.stream()
+                        .map(IndiceBusquedaComercio.Coincidencia::codigoComercio)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Comercio::getCodigoComercio, Function.identity()));
+        return new PaginaBusquedaComercio(coincidencias.stream()
+                .filter(coincidencia -> comercios.containsKey(coincidencia.codigoComercio()))
+                .map(coincidencia -> new ResultadoBusquedaComercio(coincidencia.clave(),
+                        comercios.get(coincidencia.codigoComercio())))
+                .toList(), resultado.reanudarDesde());
+    }
+
+    @Transactional(readOnly = true)
+    @LecturaPrimaria
     public Comercio findByCuentaIban(String cuentaIban) {
-        log.info("Buscando comercio por cuenta IBAN: {}", cuentaIban);
+        log.debug("Buscando comercio por cuenta IBAN: {}", cuentaIban);
         validarIban(cuentaIban);
         return this.comercioRepository.findByCuentaIban(cuentaIban)
                 .orElseThrow(() -> new ComercioNotFoundException("cuenta IBAN: " + cuentaIban));
     }
 
     @Transactional(readOnly = true)
-    public List<Comercio> findByRuc(String ruc) {
-        log.info("Buscando comercios por RUC: {}", ruc);
+    @LecturaPrimaria
+    public List<ComercioView> findByRuc(String ruc) {
+        log.debug("Buscando comercios por RUC: {}", ruc);
         validarRuc(ruc);
-        return this.comercioRepository.findByRuc(ruc);
+        return this.comercioRepository.findViewByRuc(ruc);
+    }
+
+    @Transactional(readOnly = true)
+    @LecturaPrimaria
+    public ComercioInfoView findInfoByPos(String codigoPos) {
+        log.debug("Buscando información del comercio para el POS: {}", codigoPos);
+        return this.comercioRepository.findInfoByPosComercioListCodigoPos(codigoPos)
+                .orElseThrow(() -> new PosComercioNotFoundException(codigoPos));
     }
 
     @Transactional(readOnly = true)
     public List<Comercio> findByEstado(String estado) {
-        log.info("Buscando comercios por estado: {}", estado);
+        log.debug("Buscando comercios por estado: {}", estado);
         return this.comercioRepository.findByEstado(estado);
     }
 
     @Transactional(readOnly = true)
     public List<Comercio> findBySwiftBanco(String swiftBanco) {
-        log.info("Buscando comercios por código SWIFT del banco: {}", swiftBanco);
+        log.debug("Buscando comercios por código SWIFT del banco: {}", swiftBanco);
         return this.comercioRepository.findBySwiftBanco(swiftBanco);
     }
 
+    void validarFormato(Comercio comercio) {
+        validarRuc(comercio.getRuc());
+        validarSwiftBanco(comercio.getSwiftBanco());
+        validarIban(comercio.getCuentaIban());
+    }
+
     private void validarRuc(String ruc) {
         if (!RUC_PATTERN.matcher(ruc).matches()) {
             throw new BusinessException("El RUC debe tener exactamente 13 dígitos numéricos");
@@ -124,10 +253,47 @@ public class ComercioService {
         }
     }
 
+    private void validarCodigoDisponible(String codigoComercio) {
+        if (this.comercioRepository.existsById(codigoComercio)) {
+            throw new BusinessException("Ya existe un comercio con el código: " + codigoComercio);
+        }
+    }
+
+    private static boolean violaRestriccion(DataIntegrityViolationException e, String restriccion) {
+        String violada = restriccionViolada(e);
+        return violada != null && violada.contains(restriccion);
+    }
+
+    static String restriccionViolada(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion) {
+                return violacion.getConstraintName() != null
+                        ? violacion.getConstraintName().toUpperCase(Locale.ROOT) : "";
+            }
+        }
+        return null;
+    }
+
     private void validarComercioExistente(String ruc) {
-        List<Comercio> comerciosExistentes = this.comercioRepository.findByRuc(ruc);
-        if (!comerciosExistentes.isEmpty()) {
+        if (this.comercioRepository.existsByRuc(ruc)) {
             throw new BusinessException("Ya existe un comercio registrado con el RUC proporcionado");
         }
     }
+
+    private static Comercio copiar(Comercio comercio) {
+        Comercio copia = new Comercio(comercio.getCodigoComercio());
+        copia.setCodigoInterno(comercio.getCodigoInterno());
+        copia.setRuc(comercio.getRuc());
+        copia.setRazonSocial(comercio.getRazonSocial());
+        copia.setNombreComercial(comercio.getNombreComercial());
+        copia.setFechaCreacion(comercio.getFechaCreacion());
+        copia.setCodigoComision(comercio.getCodigoComision());
+        copia.setEstado(comercio.getEstado());
+        copia.setSwiftBanco(comercio.getSwiftBanco());
+        copia.setCuentaIban(comercio.getCuentaIban());
+        copia.setFechaActivacion(comercio.getFechaActivacion());
+        copia.setFechaSuspension(comercio.getFechaSuspension());
+        copia.setVersion(comercio.getVersion());
+        return copia;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.gateway.gestion.banquito.config.EnrutadorDataSource;
+import com.banquito.gateway.gestion.banquito.exception.PosComercioNotFoundException;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+@Component
+public class EstadoPosCache {
+
+    private static final String NOMBRE_CACHE = "estadoPos";
+
+    private final PosComercioRepository posComercioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncCache<String, String> cache;
+
+    public EstadoPosCache(
+            PosComercioRepository posComercioRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.pos.estado.cache.maximo:200000}") long maximo,
+            @Value("${banquito.pos.estado.cache.expiracion:30s}") Duration expiracion,
+            MeterRegistry meterRegistry) {
+        this.posComercioRepository = posComercioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, NOMBRE_CACHE);
+    }
+
+    public String obtener(String codigoPos) {
+        return Caches.obtener(this.cache, codigoPos, this::cargar);
+    }
+
+    private String cargar(String codigoPos) {
+        return EnrutadorDataSource.enPrimaria(() -> this.transactionTemplate.execute(
+                status -> this.posComercioRepository.findById(codigoPos)
+                        .map(PosComercio::getEstado)
+                        .orElseThrow(() -> new PosComercioNotFoundException(codigoPos))));
+    }
+
+    public void invalidar(String codigoPos) {
+        Transacciones.alConfirmar(() -> this.cache.synchronous().invalidate(codigoPos));
+    }
+}
@@ -0,0 +1,4 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+public record EventoAuditoria(String tipoEntidad, String codigo, String tipoCambio, String estado, long instante) {
+}
@@ -0,0 +1,64 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class ExportacionService {
+
+    private final ComercioRepository comercioRepository;
+    private final PosComercioRepository posComercioRepository;
+    private final EntityManager entityManager;
+    private final int filasPorLimpieza;
+
+    public ExportacionService(ComercioRepository comercioRepository, PosComercioRepository posComercioRepository,
+            EntityManager entityManager,
+            @Value("${banquito.exportacion.filas-por-limpieza:1000}") int filasPorLimpieza) {
+        this.comercioRepository = comercioRepository;
+        this.posComercioRepository = posComercioRepository;
+        this.entityManager = entityManager;
+        this.filasPorLimpieza = filasPorLimpieza;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarComercios(Consumer<Comercio> consumidor) {
+        log.info("Exportando registro completo de comercios");
+        try (Stream<Comercio> comercios = this.comercioRepository.streamAllBy()) {
+            return recorrer(comercios, consumidor);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarPosComercio(Consumer<PosComercio> consumidor) {
+        log.info("Exportando registro completo de POS");
+        try (Stream<PosComercio> posComercios = this.posComercioRepository.streamAllBy()) {
+            return recorrer(posComercios, consumidor);
+        }
+    }
+
+    private <T> long recorrer(Stream<T> filas, Consumer<T> consumidor) {
+        long total = 0;
+        Iterator<T> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            consumidor.accept(iterador.next());
+            if (++total % this.filasPorLimpieza == 0) {
+                this.entityManager.clear();
+            }
+        }
+        log.info("Exportación finalizada: {} filas", total);
+        return total;
+    }
+}
@@ -0,0 +1,237 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.exception.EventosDepuradosException;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.EventoCambioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+@Service
+@Slf4j
+public class FlujoEventosService {
+
+    public static final class Suscripcion {
+
+        private final int limite;
+        private final Predicate<List<EventoCambio>> consumidor;
+        private final Runnable alCerrar;
+        private final BlockingQueue<List<EventoCambio>> pendientes;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long desde;
+
+        private Suscripcion(long desde, int limite, Predicate<List<EventoCambio>> consumidor, Runnable alCerrar,
+                int capacidadCola) {
+            this.desde = desde;
+            this.limite = limite;
+            this.consumidor = consumidor;
+            this.alCerrar = alCerrar;
+            this.pendientes = new ArrayBlockingQueue<>(capacidadCola);
+        }
+    }
+
+    private final EventoCambioRepository eventoCambioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long esperaHuecoNanos;
+    private final int tamanioLote;
+    private final int capacidadCola;
+    private final ExecutorService envios;
+    private final Counter retrasadas;
+    private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Long> huecosObservados = new ConcurrentHashMap<>();
+
+    public FlujoEventosService(
+            EventoCambioRepository eventoCambioRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.invalidacion.espera-hueco:5s}") Duration esperaHueco,
+            @Value("${banquito.eventos.tamanio-lote:500}") int tamanioLote,
+            @Value("${banquito.eventos.cola-suscriptor:8}") int capacidadCola,
+            @Value("${banquito.eventos.hilos-envio:4}") int hilosEnvio,
+            MeterRegistry meterRegistry) {
+        this.eventoCambioRepository = eventoCambioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.esperaHuecoNanos = esperaHueco.toNanos();
+        this.tamanioLote = tamanioLote;
+        this.capacidadCola = capacidadCola;
+        this.envios = Executors.newFixedThreadPool(hilosEnvio,
+                Thread.ofPlatform().name("eventos-envio-", 0).daemon().factory());
+        this.retrasadas = meterRegistry.counter("banquito.eventos.suscripciones.retrasadas");
+        Gauge.builder("banquito.eventos.suscripciones", this.suscripciones, Set::size).register(meterRegistry);
+    }
+
+    public List<EventoCambio> leer(long desde, int limite) {
+        log.debug("Leyendo hasta {} eventos de cambio desde el {}", limite, desde);
+        validarRetenidos(desde);
+        return confirmados(desde, consultar(desde, limite));
+    }
+
+    public Suscripcion suscribir(long desde, int limite, Predicate<List<EventoCambio>> consumidor, Runnable alCerrar) {
+        Suscripcion suscripcion = new Suscripcion(desde, Math.min(limite, this.tamanioLote), consumidor, alCerrar,
+                this.capacidadCola);
+        List<EventoCambio> pendientes = leer(desde, suscripcion.limite);
+        if (!pendientes.isEmpty()) {
+            suscripcion.desde = pendientes.get(pendientes.size() - 1).getId();
+            if (!suscripcion.consumidor.test(pendientes)) {
+                return suscripcion;
+            }
+        }
+        this.suscripciones.add(suscripcion);
+        return suscripcion;
+    }
+
+    public void cancelar(Suscripcion suscripcion) {
+        this.suscripciones.remove(suscripcion);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void cerrar() {
+        log.info("Cerrando {} suscripciones a eventos de cambio", this.suscripciones.size());
+        for (Suscripcion suscripcion : this.suscripciones) {
+            cancelar(suscripcion);
+            suscripcion.alCerrar.run();
+        }
+        this.envios.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.eventos.intervalo-ms:500}")
+    public void despachar() {
+        if (this.suscripciones.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Suscripcion>> porPosicion = new TreeMap<>();
+        for (Suscripcion suscripcion : this.suscripciones) {
+            porPosicion.computeIfAbsent(suscripcion.desde, desde -> new ArrayList<>()).add(suscripcion);
+        }
+        porPosicion.forEach((desde, grupo) -> {
+            List<EventoCambio> eventos;
+            try {
+                eventos = confirmados(desde, consultar(desde, this.tamanioLote));
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron leer los eventos de cambio desde el {}: {}", desde, e.getMessage());
+                return;
+            }
+            if (eventos.isEmpty()) {
+                return;
+            }
+            for (Suscripcion suscripcion : grupo) {
+                entregar(suscripcion, eventos);
+            }
+        });
+    }
+
+    private void entregar(Suscripcion suscripcion, List<EventoCambio> eventos) {
+        List<EventoCambio> lote = eventos.size() > suscripcion.limite ? eventos.subList(0, suscripcion.limite) : eventos;
+        if (!suscripcion.pendientes.offer(lote)) {
+            log.warn("Suscriptor de eventos retrasado en la posición {}, se cierra su suscripción", suscripcion.desde);
+            this.retrasadas.increment();
+            cancelar(suscripcion);
+            suscripcion.pendientes.clear();
+            suscripcion.alCerrar.run();
+            return;
+        }
+        suscripcion.desde = lote.get(lote.size() - 1).getId();
+        programarEnvio(suscripcion);
+    }
+
+    private void programarEnvio(Suscripcion suscripcion) {
+        if (!suscripcion.enviando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.envios.execute(() -> enviarPendientes(suscripcion));
+        } catch (RejectedExecutionException e) {
+            suscripcion.enviando.set(false);
+            cancelar(suscripcion);
+        }
+    }
+
+    private void enviarPendientes(Suscripcion suscripcion) {
+        try {
+            List<EventoCambio> lote;
+            while ((lote = suscripcion.pendientes.poll()) != null) {
+                if (!this.suscripciones.contains(suscripcion) || !enviar(suscripcion, lote)) {
+                    cancelar(suscripcion);
+                    suscripcion.pendientes.clear();
+                    return;
+                }
+            }
+        } finally {
+            suscripcion.enviando.set(false);
+        }
+        if (!suscripcion.pendientes.isEmpty()) {
+            programarEnvio(suscripcion);
+        }
+    }
+
+    private boolean enviar(Suscripcion suscripcion, List<EventoCambio> lote) {
+        try {
+            return suscripcion.consumidor.test(lote);
+        } catch (RuntimeException e) {
+            log.warn("Error al entregar eventos de cambio a un suscriptor: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private List<EventoCambio> consultar(long desde, int limite) {
+        return this.transactionTemplate.execute(status -> this.eventoCambioRepository
+                .findByIdGreaterThanOrderByIdAsc(desde, Limit.of(limite)));
+    }
+
+    private void validarRetenidos(long desde) {
+        if (desde <= 0) {
+            return;
+        }
+        Long primero = this.transactionTemplate.execute(status -> this.eventoCambioRepository
+                .findFirstByOrderByIdAsc()
+                .map(EventoCambio::getId)
+                .orElse(null));
+        if (primero != null && desde < primero - 1) {
+            throw new EventosDepuradosException(desde);
+        }
+    }
+
+    private List<EventoCambio> confirmados(long desde, List<EventoCambio> eventos) {
+        long ahora = System.nanoTime();
+        if (!this.huecosObservados.isEmpty()) {
+            this.huecosObservados.values().removeIf(observado -> ahora - observado > 2 * this.esperaHuecoNanos);
+        }
+        long anterior = desde;
+        for (int i = 0; i < eventos.size(); i++) {
+            EventoCambio evento = eventos.get(i);
+            if (evento.getId() != anterior + 1) {
+                long observado = this.huecosObservados.computeIfAbsent(anterior + 1, hueco -> ahora);
+                if (ahora - observado <= this.esperaHuecoNanos) {
+                    return eventos.subList(0, i);
+                }
+            }
+            anterior = evento.getId();
+        }
+        return eventos;
+    }
+}
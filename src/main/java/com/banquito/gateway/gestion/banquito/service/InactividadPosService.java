@@ -0,0 +1,131 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class InactividadPosService {
+
+    private static final int DIAS_INACTIVIDAD_MAXIMO = 90;
+    private static final String TAREA = "inactividad-pos";
+
+    private final PosComercioRepository posComercioRepository;
+    private final InvalidadorCachesLocales invalidadorCachesLocales;
+    private final UltimoUsoBuffer ultimoUsoBuffer;
+    private final InvalidacionBus invalidacionBus;
+    private final RegistroAuditoria registroAuditoria;
+    private final BloqueoTareas bloqueoTareas;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final boolean simulacion;
+    private final Duration duracionMaximaBloqueo;
+    private final Counter escaneados;
+    private final Counter desactivados;
+    private final Timer duracion;
+
+    public InactividadPosService(
+            PosComercioRepository posComercioRepository,
+            InvalidadorCachesLocales invalidadorCachesLocales,
+            UltimoUsoBuffer ultimoUsoBuffer,
+            InvalidacionBus invalidacionBus, RegistroAuditoria registroAuditoria,
+            BloqueoTareas bloqueoTareas,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.pos.inactividad.tamanio-lote:1000}") int tamanioLote,
+            @Value("${banquito.pos.inactividad.simulacion:false}") boolean simulacion,
+            @Value("${banquito.pos.inactividad.bloqueo-maximo:1h}") Duration duracionMaximaBloqueo,
+            MeterRegistry meterRegistry) {
+        this.posComercioRepository = posComercioRepository;
+        this.invalidadorCachesLocales = invalidadorCachesLocales;
+        this.ultimoUsoBuffer = ultimoUsoBuffer;
+        this.invalidacionBus = invalidacionBus;
+        this.registroAuditoria = registroAuditoria;
+        this.bloqueoTareas = bloqueoTareas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.simulacion = simulacion;
+        this.duracionMaximaBloqueo = duracionMaximaBloqueo;
+        this.escaneados = meterRegistry.counter("banquito.pos.inactividad.escaneados");
+        this.desactivados = meterRegistry.counter("banquito.pos.inactividad.desactivados");
+        this.duracion = meterRegistry.timer("banquito.pos.inactividad.duracion");
+    }
+
+    @Scheduled(cron = "${banquito.pos.inactividad.cron:0 0 3 * * *}")
+    public void verificacionProgramada() {
+        if (this.bloqueoTareas.ejecutar(TAREA, this.duracionMaximaBloqueo, this::barrerMedido).isEmpty()) {
+            log.info("Verificación de inactividad omitida: otro nodo la está ejecutando");
+        }
+    }
+
+    public int verificar() {
+        return this.bloqueoTareas.ejecutar(TAREA, this.duracionMaximaBloqueo, this::barrerMedido)
+                .orElseThrow(() -> new BusinessException("Ya existe una verificación de inactividad en curso"));
+    }
+
+    private int barrerMedido() {
+        return this.duracion.record(this::barrer);
+    }
+
+    private int barrer() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(DIAS_INACTIVIDAD_MAXIMO);
+        log.info("Verificando inactividad de POS sin uso desde {} (simulación: {})", limite, this.simulacion);
+        this.ultimoUsoBuffer.flush();
+
+        int totalEscaneados = 0;
+        int totalDesactivados = 0;
+        String ultimoCodigo = "";
+        while (true) {
+            List<String> lote = this.posComercioRepository
+                    .buscarCodigosActivosSinUsoDesde(limite, ultimoCodigo, this.tamanioLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+            totalEscaneados += lote.size();
+            this.escaneados.increment(lote.size());
+            ultimoCodigo = lote.get(lote.size() - 1);
+
+            if (this.simulacion) {
+                log.info("Simulación: se desactivarían {} POS por inactividad: {}", lote.size(), lote);
+            } else {
+                int filas = inactivarLote(lote, limite);
+                totalDesactivados += filas;
+                this.desactivados.increment(filas);
+            }
+            if (lote.size() < this.tamanioLote) {
+                break;
+            }
+        }
+
+        log.info("Verificación de inactividad finalizada: {} POS escaneados, {} desactivados", totalEscaneados, totalDesactivados);
+        return totalDesactivados;
+    }
+
+    private int inactivarLote(List<String> lote, LocalDateTime limite) {
+        List<String> inactivados = this.transactionTemplate.execute(status -> {
+            List<String> actualizados = this.posComercioRepository.inactivarSinUsoDesde(lote, limite);
+            actualizados.forEach(this.invalidadorCachesLocales::invalidarPos);
+            this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, actualizados, InvalidacionBus.CAMBIO_INACTIVIDAD, "INA");
+            this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, actualizados, InvalidacionBus.CAMBIO_INACTIVIDAD,
+                    "INA");
+            return actualizados;
+        });
+        log.debug("POS desactivados por inactividad: {}", inactivados);
+        return inactivados != null ? inactivados.size() : 0;
+    }
+}
@@ -0,0 +1,270 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.config.EnrutadorDataSource;
+import com.banquito.gateway.gestion.banquito.exception.CursorInvalidoException;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioNombreView;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class IndiceBusquedaComercio {
+
+    public record Coincidencia(String clave, String codigoComercio) {
+    }
+
+    public record Resultado(List<Coincidencia> coincidencias, String reanudarDesde) {
+    }
+
+    private static final char SEPARADOR = '\u0001';
+    private static final char FIN_RANGO = '\uffff';
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final String[] SIN_TOKENS = new String[0];
+    private static final int TOPE_ESTIMACION = 256;
+
+    private final ComercioRepository comercioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maximoClavesPorPagina;
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private volatile ConcurrentSkipListSet<String> entradas = new ConcurrentSkipListSet<>();
+    private volatile ConcurrentHashMap<String, String[]> tokensPorComercio = new ConcurrentHashMap<>();
+    private volatile Map<String, String[]> cambiosDuranteReconstruccion;
+    private volatile boolean listo;
+
+    public IndiceBusquedaComercio(ComercioRepository comercioRepository, PlatformTransactionManager transactionManager,
+            @Value("${banquito.comercio.busqueda.maximo-claves-por-pagina:2000}") int maximoClavesPorPagina,
+            MeterRegistry meterRegistry) {
+        this.comercioRepository = comercioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maximoClavesPorPagina = maximoClavesPorPagina;
+        Gauge.builder("banquito.comercio.busqueda.entradas", this, indice -> indice.entradas.size())
+                .register(meterRegistry);
+    }
+
+    public boolean isListo() {
+        return this.listo;
+    }
+
+    public void indexarAlConfirmar(String codigoComercio, String nombreComercial, String razonSocial) {
+        Transacciones.alConfirmar(() -> indexar(codigoComercio, nombreComercial, razonSocial));
+    }
+
+    public void indexar(String codigoComercio, String nombreComercial, String razonSocial) {
+        actualizar(codigoComercio, tokens(nombreComercial, razonSocial));
+    }
+
+    public void reindexar(Collection<String> codigosComercio) {
+        Map<String, ComercioNombreView> nombres = EnrutadorDataSource.enPrimaria(() -> this.transactionTemplate.execute(
+                status -> this.comercioRepository.findNombresByCodigoComercioIn(codigosComercio))).stream()
+                .collect(Collectors.toMap(ComercioNombreView::getCodigoComercio, Function.identity()));
+        for (String codigoComercio : codigosComercio) {
+            ComercioNombreView comercio = nombres.get(codigoComercio);
+            actualizar(codigoComercio, comercio != null
+                    ? tokens(comercio.getNombreComercial(), comercio.getRazonSocial()) : SIN_TOKENS);
+        }
+    }
+
+    private void actualizar(String codigoComercio, String[] tokens) {
+        this.bloqueo.readLock().lock();
+        try {
+            reemplazar(this.entradas, this.tokensPorComercio, codigoComercio, tokens);
+            Map<String, String[]> cambios = this.cambiosDuranteReconstruccion;
+            if (cambios != null) {
+                cambios.put(codigoComercio, tokens);
+            }
+        } finally {
+            this.bloqueo.readLock().unlock();
+        }
+    }
+
+    public Resultado buscar(String consulta, String despuesDe, int limite) {
+        String[] tokensConsulta = tokens(consulta);
+        if (tokensConsulta.length == 0) {
+            return new Resultado(List.of(), null);
+        }
+        String principal = tokenDelCursor(tokensConsulta, despuesDe);
+        boolean continuar = principal != null;
+        if (!continuar) {
+            principal = masSelectivo(tokensConsulta);
+        }
+        String finRango = principal + FIN_RANGO;
+        if (continuar && despuesDe.compareTo(finRango) >= 0) {
+            throw new CursorInvalidoException(despuesDe);
+        }
+        NavigableSet<String> rango = this.entradas.subSet(continuar ? despuesDe : principal, false, finRango, false);
+
+        List<Coincidencia> coincidencias = new ArrayList<>(limite);
+        int escaneadas = 0;
+        String ultimaEscaneada = null;
+        for (String clave : rango) {
+            if (escaneadas == this.maximoClavesPorPagina) {
+                return new Resultado(coincidencias, ultimaEscaneada);
+            }
+            escaneadas++;
+            ultimaEscaneada = clave;
+            int separador = clave.indexOf(SEPARADOR);
+            String codigoComercio = clave.substring(separador + 1);
+            String[] tokensComercio = this.tokensPorComercio.getOrDefault(codigoComercio, SIN_TOKENS);
+            if (!esPrimerToken(clave.substring(0, separador), principal, tokensComercio)
+                    || !coincidenTodos(tokensConsulta, tokensComercio)) {
+                continue;
+            }
+            coincidencias.add(new Coincidencia(clave, codigoComercio));
+            if (coincidencias.size() == limite) {
+                break;
+            }
+        }
+        return new Resultado(coincidencias, null);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${banquito.comercio.busqueda.intervalo-reconstruccion-ms:600000}")
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        ConcurrentSkipListSet<String> nuevasEntradas = new ConcurrentSkipListSet<>();
+        ConcurrentHashMap<String, String[]> nuevosTokens = new ConcurrentHashMap<>();
+        this.cambiosDuranteReconstruccion = new ConcurrentHashMap<>();
+        try {
+            EnrutadorDataSource.enPrimaria(() -> this.transactionTemplate.execute(status -> {
+                try (var comercios = this.comercioRepository.streamNombresBy()) {
+                    comercios.forEach(comercio -> reemplazar(nuevasEntradas, nuevosTokens, comercio.getCodigoComercio(),
+                            tokens(comercio.getNombreComercial(), comercio.getRazonSocial())));
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            this.cambiosDuranteReconstruccion = null;
+            log.error("Error al reconstruir el índice de búsqueda de comercios: {}", e.getMessage());
+            return;
+        }
+
+        this.bloqueo.writeLock().lock();
+        try {
+            this.cambiosDuranteReconstruccion.forEach(
+                    (codigoComercio, tokens) -> reemplazar(nuevasEntradas, nuevosTokens, codigoComercio, tokens));
+            this.entradas = nuevasEntradas;
+            this.tokensPorComercio = nuevosTokens;
+            this.cambiosDuranteReconstruccion = null;
+            this.listo = true;
+        } finally {
+            this.bloqueo.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de comercios reconstruido: {} comercios, {} entradas en {} ms",
+                nuevosTokens.size(), nuevasEntradas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static String tokenDelCursor(String[] tokensConsulta, String despuesDe) {
+        int separador = despuesDe == null ? -1 : despuesDe.indexOf(SEPARADOR);
+        if (separador < 0) {
+            return null;
+        }
+        String tokenCursor = despuesDe.substring(0, separador);
+        return Arrays.stream(tokensConsulta)
+                .filter(tokenCursor::startsWith)
+                .max(Comparator.comparingInt(String::length))
+                .orElse(null);
+    }
+
+    private String masSelectivo(String[] tokensConsulta) {
+        String mejor = null;
+        int menor = Integer.MAX_VALUE;
+        for (String token : tokensConsulta) {
+            int entradasToken = 0;
+            Iterator<String> iterador = this.entradas.subSet(token, token + FIN_RANGO).iterator();
+            while (entradasToken < TOPE_ESTIMACION && iterador.hasNext()) {
+                iterador.next();
+                entradasToken++;
+            }
+            if (entradasToken < menor || (entradasToken == menor && token.length() > mejor.length())) {
+                mejor = token;
+                menor = entradasToken;
+            }
+        }
+        return mejor;
+    }
+
+    private static boolean esPrimerToken(String token, String prefijo, String[] tokensComercio) {
+        for (String otro : tokensComercio) {
+            if (otro.startsWith(prefijo) && otro.compareTo(token) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean coincidenTodos(String[] tokensConsulta, String[] tokensComercio) {
+        for (String tokenConsulta : tokensConsulta) {
+            boolean coincide = false;
+            for (String tokenComercio : tokensComercio) {
+                if (tokenComercio.startsWith(tokenConsulta)) {
+                    coincide = true;
+                    break;
+                }
+            }
+            if (!coincide) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void reemplazar(Set<String> entradas, Map<String, String[]> tokensPorComercio,
+            String codigoComercio, String[] tokens) {
+        String[] anteriores = tokensPorComercio.put(codigoComercio, tokens);
+        if (anteriores != null) {
+            for (String token : anteriores) {
+                entradas.remove(token + SEPARADOR + codigoComercio);
+            }
+        }
+        for (String token : tokens) {
+            entradas.add(token + SEPARADOR + codigoComercio);
+        }
+    }
+
+    static String[] tokens(String... textos) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                    .replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+            for (String token : NO_ALFANUMERICO.split(normalizado)) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens.toArray(SIN_TOKENS);
+    }
+}
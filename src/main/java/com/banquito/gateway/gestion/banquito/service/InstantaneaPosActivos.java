@@ -0,0 +1,166 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class InstantaneaPosActivos {
+
+    static final int LONGITUD_CODIGO_POS = 10;
+
+    private final byte[] codigosPos;
+    private final int[] comercioPorPos;
+    private final int[] tabla;
+    private final int desplazamiento;
+    private final ComercioInfoDTO[] comercios;
+    private final int entradas;
+
+    private InstantaneaPosActivos(byte[] codigosPos, int[] comercioPorPos, int entradas, ComercioInfoDTO[] comercios) {
+        this.codigosPos = codigosPos;
+        this.comercioPorPos = comercioPorPos;
+        this.comercios = comercios;
+        this.entradas = entradas;
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, entradas)) + 1;
+        this.tabla = new int[1 << bits];
+        this.desplazamiento = 32 - bits;
+        for (int entrada = 0; entrada < entradas; entrada++) {
+            int posicion = posicion(hash(codigosPos, entrada));
+            while (this.tabla[posicion] != 0) {
+                posicion = (posicion + 1) & (this.tabla.length - 1);
+            }
+            this.tabla[posicion] = entrada + 1;
+        }
+    }
+
+    ComercioInfoDTO buscar(String codigoPos) {
+        if (codigoPos.length() > LONGITUD_CODIGO_POS) {
+            return null;
+        }
+        int posicion = posicion(codigoPos.hashCode());
+        int entrada;
+        while ((entrada = this.tabla[posicion]) != 0) {
+            if (iguales(this.codigosPos, entrada - 1, codigoPos)) {
+                return this.comercios[this.comercioPorPos[entrada - 1]];
+            }
+            posicion = (posicion + 1) & (this.tabla.length - 1);
+        }
+        return null;
+    }
+
+    int entradas() {
+        return this.entradas;
+    }
+
+    int comercios() {
+        return this.comercios.length;
+    }
+
+    long bytesEstimados() {
+        long bytes = arreglo(this.codigosPos.length) + arreglo(4L * this.comercioPorPos.length)
+                + arreglo(4L * this.tabla.length) + arreglo(4L * this.comercios.length);
+        Set<String> compartidas = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ComercioInfoDTO info : this.comercios) {
+            bytes += 32 + cadena(info.getCodigo_comercio()) + cadena(info.getNombre_comercio())
+                    + cadena(info.getCuenta_iban());
+            if (info.getSwift_banco() != null && compartidas.add(info.getSwift_banco())) {
+                bytes += cadena(info.getSwift_banco());
+            }
+        }
+        return bytes;
+    }
+
+    private int posicion(int hash) {
+        return (hash * 0x9E3779B9) >>> this.desplazamiento;
+    }
+
+    private static int hash(byte[] codigos, int entrada) {
+        int base = entrada * LONGITUD_CODIGO_POS;
+        int hash = 0;
+        for (int i = 0; i < LONGITUD_CODIGO_POS && codigos[base + i] != 0; i++) {
+            hash = 31 * hash + (codigos[base + i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static boolean iguales(byte[] codigos, int entrada, String codigoPos) {
+        int base = entrada * LONGITUD_CODIGO_POS;
+        for (int i = 0; i < LONGITUD_CODIGO_POS; i++) {
+            int almacenado = codigos[base + i] & 0xFF;
+            int buscado = i < codigoPos.length() ? codigoPos.charAt(i) : 0;
+            if (almacenado != buscado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long cadena(String texto) {
+        return texto == null ? 0 : 24 + arreglo(texto.length());
+    }
+
+    private static long arreglo(long bytes) {
+        return (16 + bytes + 7) & ~7L;
+    }
+
+    static final class Constructor {
+
+        private final Map<String, Integer> indicePorComercio = new HashMap<>();
+        private final List<ComercioInfoDTO> comercios = new ArrayList<>();
+        private byte[] codigosPos = new byte[LONGITUD_CODIGO_POS * 1024];
+        private int[] comercioPorPos = new int[1024];
+        private int entradas;
+
+        void agregarComercio(ComercioInfoDTO info) {
+            if (info.getSwift_banco() != null) {
+                info.setSwift_banco(info.getSwift_banco().intern());
+            }
+            this.indicePorComercio.put(info.getCodigo_comercio(), this.comercios.size());
+            this.comercios.add(info);
+        }
+
+        boolean agregarPos(String codigoPos, String codigoComercio) {
+            Integer comercio = this.indicePorComercio.get(codigoComercio);
+            if (comercio == null || !representable(codigoPos)) {
+                return false;
+            }
+            if (this.entradas == this.comercioPorPos.length) {
+                this.comercioPorPos = Arrays.copyOf(this.comercioPorPos, this.entradas * 2);
+                this.codigosPos = Arrays.copyOf(this.codigosPos, this.entradas * 2 * LONGITUD_CODIGO_POS);
+            }
+            int base = this.entradas * LONGITUD_CODIGO_POS;
+            for (int i = 0; i < codigoPos.length(); i++) {
+                this.codigosPos[base + i] = (byte) codigoPos.charAt(i);
+            }
+            this.comercioPorPos[this.entradas++] = comercio;
+            return true;
+        }
+
+        InstantaneaPosActivos construir() {
+            return new InstantaneaPosActivos(
+                    Arrays.copyOf(this.codigosPos, this.entradas * LONGITUD_CODIGO_POS),
+                    Arrays.copyOf(this.comercioPorPos, this.entradas),
+                    this.entradas,
+                    this.comercios.toArray(new ComercioInfoDTO[0]));
+        }
+
+        private static boolean representable(String codigoPos) {
+            if (codigoPos.isEmpty() || codigoPos.length() > LONGITUD_CODIGO_POS) {
+                return false;
+            }
+            for (int i = 0; i < codigoPos.length(); i++) {
+                char caracter = codigoPos.charAt(i);
+                if (caracter == 0 || caracter > 0xFF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.EventoCambioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class InvalidacionBaseDatos implements InvalidacionBus {
+
+    private final EventoCambioRepository eventoCambioRepository;
+    private final InvalidadorCachesLocales invalidadorCachesLocales;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodo;
+    private final int tamanioLote;
+    private final long esperaHuecoNanos;
+    private final Duration retencion;
+    private final Counter publicados;
+    private final Counter aplicados;
+    private final NavigableSet<Long> aplicadosSobreUltimo = new TreeSet<>();
+    private final ReentrantLock bloqueoSondeo = new ReentrantLock();
+    private long ultimoId = -1;
+    private long huecoDesde;
+
+    public InvalidacionBaseDatos(
+            EventoCambioRepository eventoCambioRepository,
+            InvalidadorCachesLocales invalidadorCachesLocales,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.invalidacion.nodo:#{T(java.util.UUID).randomUUID().toString()}}") String nodo,
+            @Value("${banquito.invalidacion.tamanio-lote:500}") int tamanioLote,
+            @Value("${banquito.invalidacion.espera-hueco:5s}") Duration esperaHueco,
+            @Value("${banquito.invalidacion.retencion:24h}") Duration retencion,
+            MeterRegistry meterRegistry) {
+        this.eventoCambioRepository = eventoCambioRepository;
+        this.invalidadorCachesLocales = invalidadorCachesLocales;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodo = nodo;
+        this.tamanioLote = tamanioLote;
+        this.esperaHuecoNanos = esperaHueco.toNanos();
+        this.retencion = retencion;
+        this.publicados = meterRegistry.counter("banquito.invalidacion.eventos.publicados");
+        this.aplicados = meterRegistry.counter("banquito.invalidacion.eventos.aplicados");
+        log.info("Bus de invalidación por base de datos iniciado para el nodo {}", nodo);
+    }
+
+    @Override
+    public void publicar(String tipoEntidad, Collection<String> codigos, String tipoCambio, String estado) {
+        if (codigos.isEmpty()) {
+            return;
+        }
+        List<String> copia = List.copyOf(codigos);
+        Transacciones.antesDeConfirmar(() -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<EventoCambio> eventos = new ArrayList<>(copia.size());
+            for (String codigo : copia) {
+                eventos.add(new EventoCambio(tipoEntidad, codigo, tipoCambio, estado, this.nodo, ahora));
+            }
+            this.eventoCambioRepository.registrar(eventos);
+            this.publicados.increment(eventos.size());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.invalidacion.intervalo-ms:1000}",
+            initialDelayString = "${banquito.invalidacion.intervalo-ms:1000}")
+    public void sondear() {
+        this.bloqueoSondeo.lock();
+        try {
+            if (this.ultimoId < 0) {
+                this.ultimoId = this.transactionTemplate.execute(status -> this.eventoCambioRepository
+                        .findFirstByOrderByIdDesc()
+                        .map(EventoCambio::getId)
+                        .orElse(0L));
+                log.info("Bus de invalidación posicionado en el evento {}", this.ultimoId);
+                return;
+            }
+            List<EventoCambio> eventos = this.transactionTemplate.execute(status -> this.eventoCambioRepository
+                    .findByIdGreaterThanOrderByIdAsc(this.ultimoId, Limit.of(this.tamanioLote)));
+            List<EventoCambio> remotos = new ArrayList<>(eventos.size());
+            for (EventoCambio evento : eventos) {
+                if (this.aplicadosSobreUltimo.add(evento.getId()) && !this.nodo.equals(evento.getNodo())) {
+                    remotos.add(evento);
+                }
+            }
+            this.invalidadorCachesLocales.aplicar(remotos);
+            this.aplicados.increment(remotos.size());
+            avanzar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron leer los eventos de invalidación: {}", e.getMessage());
+        } finally {
+            this.bloqueoSondeo.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.invalidacion.intervalo-limpieza-ms:3600000}")
+    public void limpiar() {
+        LocalDateTime limite = LocalDateTime.now().minus(this.retencion);
+        Integer eliminados = this.transactionTemplate.execute(
+                status -> this.eventoCambioRepository.eliminarAnterioresA(limite));
+        log.info("Eventos de invalidación anteriores a {} eliminados: {}", limite, eliminados);
+    }
+
+    private void avanzar() {
+        while (!this.aplicadosSobreUltimo.isEmpty() && this.aplicadosSobreUltimo.first() == this.ultimoId + 1) {
+            this.ultimoId = this.aplicadosSobreUltimo.pollFirst();
+        }
+        if (this.aplicadosSobreUltimo.isEmpty()) {
+            this.huecoDesde = 0;
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (this.huecoDesde == 0) {
+            this.huecoDesde = ahora;
+        } else if (ahora - this.huecoDesde > this.esperaHuecoNanos) {
+            log.debug("Hueco de eventos antes del {} descartado tras la espera", this.aplicadosSobreUltimo.first());
+            this.ultimoId = this.aplicadosSobreUltimo.first() - 1;
+            this.huecoDesde = 0;
+            avanzar();
+        }
+    }
+}
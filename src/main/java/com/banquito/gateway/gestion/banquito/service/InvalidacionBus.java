@@ -0,0 +1,20 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InvalidacionBus {
+
+    String CAMBIO_CREACION = "CREACION";
+    String CAMBIO_SUSPENSION = "SUSPENSION";
+    String CAMBIO_ESTADO = "ESTADO";
+    String CAMBIO_ACTUALIZACION = "ACTUALIZACION";
+    String CAMBIO_ELIMINACION = "ELIMINACION";
+    String CAMBIO_INACTIVIDAD = "INACTIVIDAD";
+
+    void publicar(String tipoEntidad, Collection<String> codigos, String tipoCambio, String estado);
+
+    default void publicar(String tipoEntidad, String codigo, String tipoCambio, String estado) {
+        publicar(tipoEntidad, List.of(codigo), tipoCambio, estado);
+    }
+}
@@ -0,0 +1,79 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Slf4j
+public class InvalidadorCachesLocales {
+
+    private final ComercioInfoCache comercioInfoCache;
+    private final EstadoPosCache estadoPosCache;
+    private final RegistroPosActivos registroPosActivos;
+    private final IndiceBusquedaComercio indiceBusquedaComercio;
+    private final SessionFactory sessionFactory;
+
+    public InvalidadorCachesLocales(ComercioInfoCache comercioInfoCache, EstadoPosCache estadoPosCache,
+            RegistroPosActivos registroPosActivos, IndiceBusquedaComercio indiceBusquedaComercio,
+            EntityManagerFactory entityManagerFactory) {
+        this.comercioInfoCache = comercioInfoCache;
+        this.estadoPosCache = estadoPosCache;
+        this.registroPosActivos = registroPosActivos;
+        this.indiceBusquedaComercio = indiceBusquedaComercio;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void aplicar(List<EventoCambio> eventos) {
+        Set<String> comerciosPorIndexar = new LinkedHashSet<>();
+        for (EventoCambio evento : eventos) {
+            aplicar(evento);
+            if (EventoCambio.ENTIDAD_COMERCIO.equals(evento.getTipoEntidad()) && cambiaNombres(evento.getTipoCambio())) {
+                comerciosPorIndexar.add(evento.getCodigo());
+            }
+        }
+        if (!comerciosPorIndexar.isEmpty()) {
+            this.indiceBusquedaComercio.reindexar(comerciosPorIndexar);
+        }
+    }
+
+    public void aplicar(EventoCambio evento) {
+        log.debug("Invalidando caches locales por evento remoto: {}", evento);
+        if (EventoCambio.ENTIDAD_COMERCIO.equals(evento.getTipoEntidad())) {
+            invalidarComercio(evento.getCodigo());
+        } else if (EventoCambio.ENTIDAD_POS.equals(evento.getTipoEntidad())) {
+            invalidarPos(evento.getCodigo());
+        }
+    }
+
+    public void invalidarComercio(String codigoComercio) {
+        this.sessionFactory.getCache().evictEntityData(Comercio.class, codigoComercio);
+        this.sessionFactory.getCache().evictDefaultQueryRegion();
+        this.comercioInfoCache.invalidarComercio(codigoComercio);
+        this.registroPosActivos.marcarComercio(codigoComercio);
+        Transacciones.alConfirmar(() -> {
+            this.sessionFactory.getCache().evictEntityData(Comercio.class, codigoComercio);
+            this.sessionFactory.getCache().evictDefaultQueryRegion();
+        });
+    }
+
+    public void invalidarPos(String codigoPos) {
+        this.comercioInfoCache.invalidarPos(codigoPos);
+        this.estadoPosCache.invalidar(codigoPos);
+        this.registroPosActivos.marcarPos(codigoPos);
+    }
+
+    private static boolean cambiaNombres(String tipoCambio) {
+        return InvalidacionBus.CAMBIO_CREACION.equals(tipoCambio)
+                || InvalidacionBus.CAMBIO_ACTUALIZACION.equals(tipoCambio)
+                || InvalidacionBus.CAMBIO_ELIMINACION.equals(tipoCambio);
+    }
+}
@@ -0,0 +1,6 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import java.util.List;
+
+public record PaginaBusquedaComercio(List<ResultadoBusquedaComercio> resultados, String reanudarDesde) {
+}
@@ -0,0 +1,225 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.config.EnrutadorDataSource;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResultadoLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResumenLoteDTO;
+import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioClaveView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class PosComercioLoteService {
+
+    private static final String CREADO = "CREADO";
+    private static final String RECHAZADO = "RECHAZADO";
+
+    private final PosComercioService posComercioService;
+    private final ComercioService comercioService;
+    private final PosComercioRepository posComercioRepository;
+    private final ComercioRepository comercioRepository;
+    private final InvalidacionBus invalidacionBus;
+    private final RegistroAuditoria registroAuditoria;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate lecturaTemplate;
+    private final int maximoRegistros;
+
+    public PosComercioLoteService(PosComercioService posComercioService, ComercioService comercioService,
+            PosComercioRepository posComercioRepository,
+            ComercioRepository comercioRepository, InvalidacionBus invalidacionBus, RegistroAuditoria registroAuditoria,
+            Validator validator, EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.lote.maximo-registros:10000}") int maximoRegistros) {
+        this.posComercioService = posComercioService;
+        this.comercioService = comercioService;
+        this.posComercioRepository = posComercioRepository;
+        this.comercioRepository = comercioRepository;
+        this.invalidacionBus = invalidacionBus;
+        this.registroAuditoria = registroAuditoria;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate.setReadOnly(true);
+        this.maximoRegistros = maximoRegistros;
+    }
+
+    public ResumenLoteDTO asignar(List<PosComercioDTO> posComercios) {
+        if (posComercios.size() > this.maximoRegistros) {
+            throw new LoteInvalidoException("se permiten máximo " + this.maximoRegistros + " POS por lote");
+        }
+        log.info("Asignando lote de {} POS", posComercios.size());
+
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[posComercios.size()];
+        List<Integer> candidatos = new ArrayList<>(posComercios.size());
+        for (int i = 0; i < posComercios.size(); i++) {
+            String error = validar(posComercios.get(i));
+            if (error != null) {
+                resultados[i] = resultado(i, posComercios.get(i), RECHAZADO, error);
+            } else {
+                candidatos.add(i);
+            }
+        }
+
+        Set<String> codigosPos = candidatos.stream().map(i -> posComercios.get(i).getCodigoPos()).collect(Collectors.toSet());
+        Set<String> macs = candidatos.stream().map(i -> posComercios.get(i).getDireccionMac()).collect(Collectors.toSet());
+        Set<String> codigosExistentes = new HashSet<>();
+        Set<String> macsExistentes = new HashSet<>();
+        if (!candidatos.isEmpty()) {
+            List<PosComercioClaveView> existentes = EnrutadorDataSource.enPrimaria(() -> this.lecturaTemplate.execute(
+                    status -> this.posComercioRepository.findByCodigoPosInOrDireccionMacIn(codigosPos, macs)));
+            for (PosComercioClaveView existente : existentes) {
+                codigosExistentes.add(existente.getCodigoPos());
+                macsExistentes.add(existente.getDireccionMac());
+            }
+        }
+
+        Map<String, List<Integer>> porComercio = new LinkedHashMap<>();
+        Set<String> codigosLote = new HashSet<>();
+        Set<String> macsLote = new HashSet<>();
+        for (Integer i : candidatos) {
+            PosComercioDTO dto = posComercios.get(i);
+            if (codigosExistentes.contains(dto.getCodigoPos()) || !codigosLote.add(dto.getCodigoPos())) {
+                resultados[i] = resultado(i, dto, RECHAZADO, "Ya existe un POS con el código: " + dto.getCodigoPos());
+            } else if (macsExistentes.contains(dto.getDireccionMac()) || !macsLote.add(dto.getDireccionMac())) {
+                resultados[i] = resultado(i, dto, RECHAZADO, "Ya existe un POS registrado con la dirección MAC proporcionada");
+            } else {
+                porComercio.computeIfAbsent(dto.getCodigoComercio(), codigo -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, Comercio> comercios = EnrutadorDataSource.enPrimaria(() -> this.lecturaTemplate.execute(
+                status -> this.comercioRepository.findAllById(porComercio.keySet()))).stream()
+                .collect(Collectors.toMap(Comercio::getCodigoComercio, Function.identity()));
+
+        int creados = 0;
+        for (Map.Entry<String, List<Integer>> grupo : porComercio.entrySet()) {
+            creados += asignarGrupo(comercios.get(grupo.getKey()), grupo.getKey(), grupo.getValue(), posComercios, resultados);
+        }
+
+        ResumenLoteDTO resumen = new ResumenLoteDTO();
+        resumen.setTotal(posComercios.size());
+        resumen.setCreados(creados);
+        resumen.setRechazados(posComercios.size() - creados);
+        resumen.setResultados(Arrays.asList(resultados));
+        log.info("Lote de POS procesado: {} creados, {} rechazados", creados, resumen.getRechazados());
+        return resumen;
+    }
+
+    private int asignarGrupo(Comercio comercio, String codigoComercio, List<Integer> indices,
+            List<PosComercioDTO> posComercios, ResultadoLoteDTO[] resultados) {
+        if (comercio == null) {
+            rechazarGrupo(indices, posComercios, resultados, "No se encontró el comercio con código: " + codigoComercio);
+            return 0;
+        }
+        if (!"ACT".equals(comercio.getEstado())) {
+            rechazarGrupo(indices, posComercios, resultados, "No se puede crear un POS para un comercio inactivo o suspendido");
+            return 0;
+        }
+
+        try {
+            Integer creados = this.transactionTemplate.execute(status -> {
+                Comercio referencia = this.comercioService.bloquear(codigoComercio);
+                if (!"ACT".equals(referencia.getEstado())) {
+                    rechazarGrupo(indices, posComercios, resultados,
+                            "No se puede crear un POS para un comercio inactivo o suspendido");
+                    return 0;
+                }
+                long disponibles = PosComercioService.MAX_POS_POR_COMERCIO
+                        - this.posComercioRepository.countByComercioCodigoComercio(codigoComercio);
+                LocalDateTime ahora = LocalDateTime.now();
+                List<String> codigosCreados = new ArrayList<>(indices.size());
+                for (Integer i : indices) {
+                    PosComercioDTO dto = posComercios.get(i);
+                    if (codigosCreados.size() >= disponibles) {
+                        resultados[i] = resultado(i, dto, RECHAZADO, "El comercio ha alcanzado el límite máximo de "
+                                + PosComercioService.MAX_POS_POR_COMERCIO + " POS");
+                        continue;
+                    }
+                    PosComercio posComercio = new PosComercio(dto.getCodigoPos());
+                    posComercio.setModelo(dto.getModelo());
+                    posComercio.setDireccionMac(dto.getDireccionMac());
+                    posComercio.setComercio(referencia);
+                    posComercio.setEstado("ACT");
+                    posComercio.setFechaActivacion(ahora);
+                    posComercio.setUltimoUso(ahora);
+                    this.entityManager.persist(posComercio);
+                    resultados[i] = resultado(i, dto, CREADO, null);
+                    codigosCreados.add(posComercio.getCodigoPos());
+                }
+                this.entityManager.flush();
+                this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, codigosCreados, InvalidacionBus.CAMBIO_CREACION, "ACT");
+                this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, codigosCreados, InvalidacionBus.CAMBIO_CREACION, "ACT");
+                return codigosCreados.size();
+            });
+            return creados != null ? creados : 0;
+        } catch (RuntimeException e) {
+            log.error("Error al guardar los POS del comercio {}: {}", codigoComercio, e.getMessage());
+            rechazarGrupo(indices, posComercios, resultados, "Error al guardar el POS: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void rechazarGrupo(List<Integer> indices, List<PosComercioDTO> posComercios, ResultadoLoteDTO[] resultados,
+            String mensaje) {
+        for (Integer i : indices) {
+            resultados[i] = resultado(i, posComercios.get(i), RECHAZADO, mensaje);
+        }
+    }
+
+    private String validar(PosComercioDTO dto) {
+        if (dto == null) {
+            return "El registro está vacío";
+        }
+        Set<ConstraintViolation<PosComercioDTO>> violaciones = this.validator.validate(dto);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            this.posComercioService.validarDireccionMac(dto.getDireccionMac());
+        } catch (BusinessException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private ResultadoLoteDTO resultado(int indice, PosComercioDTO dto, String resultado, String mensaje) {
+        ResultadoLoteDTO dtoResultado = new ResultadoLoteDTO();
+        dtoResultado.setIndice(indice);
+        dtoResultado.setCodigo(dto != null ? dto.getCodigoPos() : null);
+        dtoResultado.setResultado(resultado);
+        dtoResultado.setMensaje(mensaje);
+        return dtoResultado;
+    }
+}
@@ -1,19 +1,31 @@
 package com.banquito.gateway.gestion.banquito.service;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import lombok.extern.slf4j.Slf4j;
 
+import com.banquito.gateway.gestion.banquito.config.EnrutadorDataSource;
+import com.banquito.gateway.gestion.banquito.config.LecturaPrimaria;
 import com.banquito.gateway.gestion.banquito.model.PosComercio;
 import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
 import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioVersionView;
+import com.banquito.gateway.gestion.banquito.repository.projection.PosComercioView;
 import com.banquito.gateway.gestion.banquito.exception.PosComercioNotFoundException;
 import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.exception.ConflictoConcurrenciaException;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -21,43 +33,83 @@ import java.util.regex.Pattern;
 @Slf4j
 public class PosComercioService {
 
-    private static final int MAX_POS_POR_COMERCIO = 10;
-    private static final int DIAS_INACTIVIDAD_MAXIMO = 90;
-    private static final Pattern MAC_PATTERN = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$");
+    static final int MAX_POS_POR_COMERCIO = 10;
+    static final Pattern MAC_PATTERN = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}([0-9A-Fa-f]{2})$");
 
     private final PosComercioRepository posComercioRepository;
     private final ComercioService comercioService;
+    private final InvalidadorCachesLocales invalidadorCachesLocales;
+    private final EstadoPosCache estadoPosCache;
+    private final UltimoUsoBuffer ultimoUsoBuffer;
+    private final InactividadPosService inactividadPosService;
+    private final InvalidacionBus invalidacionBus;
+    private final RegistroAuditoria registroAuditoria;
+    private final TransactionTemplate transactionTemplate;
+    private final CargaUnica<String, PosComercio> cargaPorCodigo;
 
-    public PosComercioService(PosComercioRepository posComercioRepository, ComercioService comercioService) {
+    public PosComercioService(PosComercioRepository posComercioRepository, ComercioService comercioService,
+            InvalidadorCachesLocales invalidadorCachesLocales, EstadoPosCache estadoPosCache, UltimoUsoBuffer ultimoUsoBuffer,
+            InactividadPosService inactividadPosService, InvalidacionBus invalidacionBus, RegistroAuditoria registroAuditoria,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.posComercioRepository = posComercioRepository;
         this.comercioService = comercioService;
+        this.invalidadorCachesLocales = invalidadorCachesLocales;
+        this.estadoPosCache = estadoPosCache;
+        this.ultimoUsoBuffer = ultimoUsoBuffer;
+        this.inactividadPosService = inactividadPosService;
+        this.invalidacionBus = invalidacionBus;
+        this.registroAuditoria = registroAuditoria;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cargaPorCodigo = new CargaUnica<>("pos", PosComercioService::copiar, meterRegistry);
     }
 
     @Transactional(readOnly = true)
     public Page<PosComercio> findAll(Pageable pageable) {
-        log.info("Obteniendo todos los POS comercio paginados");
+        log.debug("Obteniendo todos los POS comercio paginados");
         return this.posComercioRepository.findAll(pageable);
     }
 
     @Transactional(readOnly = true)
+    public List<PosComercio> findSiguientes(String despuesDeCodigoPos, int cantidad) {
+        log.debug("Obteniendo {} POS a partir del código: {}", cantidad, despuesDeCodigoPos);
+        return this.posComercioRepository.findByCodigoPosGreaterThanOrderByCodigoPosAsc(
+                despuesDeCodigoPos, Limit.of(cantidad));
+    }
+
     public PosComercio findById(String codigoPos) {
-        log.info("Buscando POS comercio con código: {}", codigoPos);
-        return this.posComercioRepository.findById(codigoPos)
+        log.debug("Buscando POS comercio con código: {}", codigoPos);
+        return this.cargaPorCodigo.obtener(codigoPos, codigo -> EnrutadorDataSource.enPrimaria(
+                () -> this.transactionTemplate.execute(status -> this.posComercioRepository.findById(codigo)
+                        .orElseThrow(() -> new PosComercioNotFoundException(codigo)))));
+    }
+
+    @Transactional(readOnly = true)
+    @LecturaPrimaria
+    public PosComercioVersionView findVersion(String codigoPos) {
+        log.debug("Consultando versión del POS con código: {}", codigoPos);
+        return this.posComercioRepository.findVersionByCodigoPos(codigoPos)
                 .orElseThrow(() -> new PosComercioNotFoundException(codigoPos));
     }
 
+    @Transactional(readOnly = true)
+    @LecturaPrimaria
+    public List<PosComercio> findConComercio(Collection<String> codigosPos) {
+        log.debug("Buscando {} POS con su comercio", codigosPos.size());
+        return this.posComercioRepository.findConComercioByCodigoPosIn(codigosPos);
+    }
+
     @Transactional
     public PosComercio create(PosComercio posComercio) {
-        log.info("Creando nuevo POS comercio: {}", posComercio);
+        log.debug("Creando nuevo POS comercio con código: {}", posComercio.getCodigoPos());
         
         
-        if (this.posComercioRepository.findById(posComercio.getCodigoPos()).isPresent()) {
-            throw new BusinessException("Ya existe un POS con el código: " + posComercio.getCodigoPos());
-        }
+        Comercio comercio = this.comercioService.bloquear(posComercio.getComercio().getCodigoComercio());
         
         
-        Comercio comercio = this.comercioService.findById(posComercio.getComercio().getCodigoComercio());
-        log.info("Comercio encontrado: {}", comercio);
+        if (this.posComercioRepository.existsById(posComercio.getCodigoPos())) {
+            throw new BusinessException("Ya existe un POS con el código: " + posComercio.getCodigoPos());
+        }
         
         
         validarComercioActivo(comercio);
@@ -71,8 +123,12 @@ public class PosComercioService {
         posComercio.setUltimoUso(LocalDateTime.now());
         posComercio.setComercio(comercio);
 
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, posComercio.getCodigoPos(),
+                InvalidacionBus.CAMBIO_CREACION, posComercio.getEstado());
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, posComercio.getCodigoPos(),
+                InvalidacionBus.CAMBIO_CREACION, posComercio.getEstado());
         try {
-            return this.posComercioRepository.save(posComercio);
+            return this.posComercioRepository.saveAndFlush(posComercio);
         } catch (Exception e) {
             log.error("Error al guardar el POS: {}", e.getMessage());
             throw new BusinessException("Error al guardar el POS: " + e.getMessage());
@@ -81,7 +137,7 @@ public class PosComercioService {
 
     @Transactional
     public void delete(String codigoPos) {
-        log.info("Eliminando POS comercio con código: {}", codigoPos);
+        log.debug("Eliminando POS comercio con código: {}", codigoPos);
         PosComercio posComercio = findById(codigoPos);
         
         if ("ACT".equals(posComercio.getEstado())) {
@@ -89,95 +145,84 @@ public class PosComercioService {
         }
         
         this.posComercioRepository.delete(posComercio);
+        this.invalidadorCachesLocales.invalidarPos(codigoPos);
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, codigoPos, InvalidacionBus.CAMBIO_ELIMINACION, null);
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, codigoPos, InvalidacionBus.CAMBIO_ELIMINACION, null);
     }
 
     @Transactional(readOnly = true)
-    public Page<PosComercio> findByComercio(String codigoComercio, Pageable pageable) {
-        log.info("Buscando POS por código de comercio: {}", codigoComercio);
-        return this.posComercioRepository.findByComercioCodigoComercio(codigoComercio, pageable);
+    public Page<PosComercioView> findByComercio(String codigoComercio, Pageable pageable) {
+        log.debug("Buscando POS por código de comercio: {}", codigoComercio);
+        return this.posComercioRepository.findByCodigoComercio(codigoComercio, pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<PosComercio> findByModelo(String modelo) {
-        log.info("Buscando POS por modelo: {}", modelo);
+    public List<PosComercioView> findByModelo(String modelo) {
+        log.debug("Buscando POS por modelo: {}", modelo);
         return this.posComercioRepository.findByModelo(modelo);
     }
 
-    @Transactional
     public void actualizarUltimoUso(String codigoPos) {
-        log.info("Actualizando último uso del POS con código: {}", codigoPos);
-        PosComercio posComercio = findById(codigoPos);
+        log.debug("Actualizando último uso del POS con código: {}", codigoPos);
         
-        if (!"ACT".equals(posComercio.getEstado())) {
+        if (!"ACT".equals(this.estadoPosCache.obtener(codigoPos))) {
             throw new BusinessException("No se puede actualizar el último uso de un POS inactivo");
         }
 
-        posComercio.setUltimoUso(LocalDateTime.now());
-        this.posComercioRepository.save(posComercio);
+        this.ultimoUsoBuffer.registrar(codigoPos, LocalDateTime.now());
     }
 
-    @Transactional
-    public void verificarInactividad() {
-        log.info("Verificando inactividad de POS");
-        List<PosComercio> posActivos = this.posComercioRepository.findByEstado("ACT");
-        LocalDateTime ahora = LocalDateTime.now();
-
-        for (PosComercio pos : posActivos) {
-            if (pos.getUltimoUso() != null) {
-                long diasInactivo = ChronoUnit.DAYS.between(pos.getUltimoUso(), ahora);
-                if (diasInactivo > DIAS_INACTIVIDAD_MAXIMO) {
-                    log.info("Desactivando POS {} por inactividad", pos.getCodigoPos());
-                    pos.setEstado("INA");
-                    this.posComercioRepository.save(pos);
-                }
-            }
-        }
+    public int verificarInactividad() {
+        return this.inactividadPosService.verificar();
     }
 
     @Transactional
-    public PosComercio update(PosComercio posComercio) {
-        log.info("Actualizando POS comercio: {}", posComercio);
-        
-        
-        Comercio comercio = this.comercioService.findById(posComercio.getComercio().getCodigoComercio());
+    public PosComercio asignarComercio(String codigoPos, String codigoComercio) {
+        log.debug("Asignando POS {} al comercio {}", codigoPos, codigoComercio);
+
+        Comercio comercio = this.comercioService.bloquear(codigoComercio);
         validarComercioActivo(comercio);
-        
-       
-        
+
+        PosComercio posComercio = findById(codigoPos);
+        if (!codigoComercio.equals(posComercio.getCodigoComercio())) {
+            validarLimitePosComercio(codigoComercio);
+        }
+        posComercio.setComercio(comercio);
+
+        this.invalidadorCachesLocales.invalidarPos(codigoPos);
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, codigoPos,
+                InvalidacionBus.CAMBIO_ACTUALIZACION, posComercio.getEstado());
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, codigoPos,
+                InvalidacionBus.CAMBIO_ACTUALIZACION, posComercio.getEstado());
         try {
-            return this.posComercioRepository.save(posComercio);
-        } catch (Exception e) {
-            log.error("Error al actualizar el POS: {}", e.getMessage());
-            throw new BusinessException("Error al actualizar el POS: " + e.getMessage());
+            return this.posComercioRepository.saveAndFlush(posComercio);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Conflicto de concurrencia al asignar el POS {}: {}", codigoPos, e.getMessage());
+            throw new ConflictoConcurrenciaException(codigoPos);
         }
     }
 
     @Transactional
     public PosComercio actualizarEstado(String codigoPos, String nuevoEstado) {
-        log.info("Actualizando estado del POS {} a {}", codigoPos, nuevoEstado);
+        log.debug("Actualizando estado del POS {} a {}", codigoPos, nuevoEstado);
         
         if (!nuevoEstado.equals("ACT") && !nuevoEstado.equals("INA")) {
             throw new BusinessException("El estado debe ser ACT o INA");
         }
 
-        PosComercio posComercio = findById(codigoPos);
-        
-        if (nuevoEstado.equals(posComercio.getEstado())) {
+        String estadoActual = nuevoEstado.equals("ACT") ? "INA" : "ACT";
+        LocalDateTime fechaActivacion = nuevoEstado.equals("ACT") ? LocalDateTime.now() : null;
+        if (this.posComercioRepository.cambiarEstado(codigoPos, estadoActual, nuevoEstado, fechaActivacion) == 0) {
+            if (!this.posComercioRepository.existsById(codigoPos)) {
+                throw new PosComercioNotFoundException(codigoPos);
+            }
             throw new BusinessException("El POS ya se encuentra en estado: " + nuevoEstado);
         }
 
-        posComercio.setEstado(nuevoEstado);
-        
-        if (nuevoEstado.equals("ACT")) {
-            posComercio.setFechaActivacion(LocalDateTime.now());
-        }
-
-        try {
-            return this.posComercioRepository.save(posComercio);
-        } catch (Exception e) {
-            log.error("Error al actualizar el estado del POS: {}", e.getMessage());
-            throw new BusinessException("Error al actualizar el estado del POS: " + e.getMessage());
-        }
+        this.invalidadorCachesLocales.invalidarPos(codigoPos);
+        this.invalidacionBus.publicar(EventoCambio.ENTIDAD_POS, codigoPos, InvalidacionBus.CAMBIO_ESTADO, nuevoEstado);
+        this.registroAuditoria.registrar(EventoCambio.ENTIDAD_POS, codigoPos, InvalidacionBus.CAMBIO_ESTADO, nuevoEstado);
+        return findById(codigoPos);
     }
 
     private void validarComercioActivo(Comercio comercio) {
@@ -187,22 +232,35 @@ public class PosComercioService {
     }
 
     private void validarLimitePosComercio(String codigoComercio) {
-        List<PosComercio> posExistentes = this.posComercioRepository.findByComercioCodigoComercio(codigoComercio);
-        if (posExistentes.size() >= MAX_POS_POR_COMERCIO) {
+        if (this.posComercioRepository.countByComercioCodigoComercio(codigoComercio) >= MAX_POS_POR_COMERCIO) {
             throw new BusinessException("El comercio ha alcanzado el límite máximo de " + MAX_POS_POR_COMERCIO + " POS");
         }
     }
 
-    private void validarDireccionMac(String direccionMac) {
+    void validarDireccionMac(String direccionMac) {
         if (!MAC_PATTERN.matcher(direccionMac).matches()) {
             throw new BusinessException("La dirección MAC no tiene un formato válido");
         }
     }
 
     private void validarMacUnica(String direccionMac) {
-        List<PosComercio> posConMismaMac = this.posComercioRepository.findByDireccionMac(direccionMac);
-        if (!posConMismaMac.isEmpty()) {
+        if (this.posComercioRepository.existsByDireccionMac(direccionMac)) {
             throw new BusinessException("Ya existe un POS registrado con la dirección MAC proporcionada");
         }
     }
+
+    private static PosComercio copiar(PosComercio posComercio) {
+        String codigoComercio = posComercio.getComercio() != null
+                ? posComercio.getComercio().getCodigoComercio() : posComercio.getCodigoComercio();
+        PosComercio copia = new PosComercio(posComercio.getCodigoPos());
+        copia.setModelo(posComercio.getModelo());
+        copia.setComercio(codigoComercio != null ? new Comercio(codigoComercio) : null);
+        copia.setCodigoComercio(codigoComercio);
+        copia.setDireccionMac(posComercio.getDireccionMac());
+        copia.setEstado(posComercio.getEstado());
+        copia.setFechaActivacion(posComercio.getFechaActivacion());
+        copia.setUltimoUso(posComercio.getUltimoUso());
+        copia.setVersion(posComercio.getVersion());
+        return copia;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Component
+@Slf4j
+public class RegistroAuditoria {
+
+    public enum PoliticaDesborde {
+        DESCARTAR_NUEVOS,
+        DESCARTAR_ANTIGUOS,
+        ESPERAR
+    }
+
+    private static final Logger AUDITORIA = LoggerFactory.getLogger("banquito.auditoria");
+
+    private final ArrayBlockingQueue<EventoAuditoria> pendientes;
+    private final PoliticaDesborde politica;
+    private final long esperaMaximaNanos;
+    private final int tamanioLote;
+    private final Consumer<EventoAuditoria> escritor;
+    private final Counter encolados;
+    private final Counter descartados;
+    private final Counter escritos;
+    private volatile Thread hiloEscritor;
+    private volatile boolean detenido;
+
+    @Autowired
+    public RegistroAuditoria(
+            @Value("${banquito.auditoria.capacidad:65536}") int capacidad,
+            @Value("${banquito.auditoria.politica:DESCARTAR_NUEVOS}") PoliticaDesborde politica,
+            @Value("${banquito.auditoria.espera-maxima:5ms}") Duration esperaMaxima,
+            @Value("${banquito.auditoria.tamanio-lote:512}") int tamanioLote,
+            MeterRegistry meterRegistry) {
+        this(capacidad, politica, esperaMaxima, tamanioLote, RegistroAuditoria::escribir, meterRegistry);
+    }
+
+    RegistroAuditoria(int capacidad, PoliticaDesborde politica, Duration esperaMaxima, int tamanioLote,
+            Consumer<EventoAuditoria> escritor, MeterRegistry meterRegistry) {
+        this.pendientes = new ArrayBlockingQueue<>(capacidad);
+        this.politica = politica;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.tamanioLote = tamanioLote;
+        this.escritor = escritor;
+        this.encolados = meterRegistry.counter("banquito.auditoria.eventos", "resultado", "encolado");
+        this.descartados = meterRegistry.counter("banquito.auditoria.eventos", "resultado", "descartado");
+        this.escritos = meterRegistry.counter("banquito.auditoria.eventos", "resultado", "escrito");
+        Gauge.builder("banquito.auditoria.pendientes", this.pendientes, ArrayBlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        log.info("Registro de auditoría asíncrono iniciado: capacidad {}, política {}",
+                this.pendientes.remainingCapacity(), this.politica);
+        this.hiloEscritor = Thread.ofPlatform().name("auditoria-escritor").daemon().start(this::escribirPendientes);
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        this.detenido = true;
+        Thread hilo = this.hiloEscritor;
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        log.info("Registro de auditoría detenido: {} eventos descartados en total", (long) this.descartados.count());
+    }
+
+    public void registrar(String tipoEntidad, String codigo, String tipoCambio, String estado) {
+        long instante = System.currentTimeMillis();
+        Transacciones.alConfirmar(() -> encolar(new EventoAuditoria(tipoEntidad, codigo, tipoCambio, estado, instante)));
+    }
+
+    public void registrar(String tipoEntidad, Collection<String> codigos, String tipoCambio, String estado) {
+        if (codigos.isEmpty()) {
+            return;
+        }
+        long instante = System.currentTimeMillis();
+        List<String> copia = List.copyOf(codigos);
+        Transacciones.alConfirmar(() -> {
+            for (String codigo : copia) {
+                encolar(new EventoAuditoria(tipoEntidad, codigo, tipoCambio, estado, instante));
+            }
+        });
+    }
+
+    void encolar(EventoAuditoria evento) {
+        if (this.pendientes.offer(evento)) {
+            this.encolados.increment();
+            return;
+        }
+        switch (this.politica) {
+            case DESCARTAR_ANTIGUOS -> {
+                while (!this.pendientes.offer(evento)) {
+                    if (this.pendientes.poll() != null) {
+                        this.descartados.increment();
+                    }
+                }
+                this.encolados.increment();
+            }
+            case ESPERAR -> {
+                try {
+                    if (this.pendientes.offer(evento, this.esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                        this.encolados.increment();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                this.descartados.increment();
+            }
+            default -> this.descartados.increment();
+        }
+    }
+
+    int escribirLote(List<EventoAuditoria> lote) {
+        lote.clear();
+        this.pendientes.drainTo(lote, this.tamanioLote);
+        for (EventoAuditoria evento : lote) {
+            try {
+                this.escritor.accept(evento);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo escribir el evento de auditoría {}: {}", evento, e.getMessage());
+            }
+        }
+        this.escritos.increment(lote.size());
+        return lote.size();
+    }
+
+    private void escribirPendientes() {
+        List<EventoAuditoria> lote = new ArrayList<>(this.tamanioLote);
+        while (!this.detenido) {
+            try {
+                EventoAuditoria primero = this.pendientes.take();
+                this.escritor.accept(primero);
+                this.escritos.increment();
+                escribirLote(lote);
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Error en el escritor de auditoría: {}", e.getMessage());
+            }
+        }
+        while (escribirLote(lote) > 0) {
+            log.debug("Eventos de auditoría pendientes escritos antes del apagado: {}", lote.size());
+        }
+    }
+
+    private static void escribir(EventoAuditoria evento) {
+        AUDITORIA.info("entidad={} codigo={} cambio={} estado={} instante={}", evento.tipoEntidad(), evento.codigo(),
+                evento.tipoCambio(), evento.estado(), Instant.ofEpochMilli(evento.instante()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class RegistroPosActivos {
+
+    private record Marcas(Set<String> pos, Set<String> comercios) {
+
+        static Marcas vacias() {
+            return new Marcas(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private record Estado(InstantaneaPosActivos instantanea, Marcas modificados) {
+    }
+
+    private final PosComercioRepository posComercioRepository;
+    private final ComercioRepository comercioRepository;
+    private final ComercioMapper comercioMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final ReentrantLock bloqueoReconstruccion = new ReentrantLock();
+    private volatile Estado estado;
+    private volatile Marcas modificadosDuranteReconstruccion;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public RegistroPosActivos(PosComercioRepository posComercioRepository, ComercioRepository comercioRepository,
+            ComercioMapper comercioMapper, PlatformTransactionManager transactionManager,
+            @Value("${banquito.comercio-info.instantanea.habilitada:false}") boolean habilitado,
+            MeterRegistry meterRegistry) {
+        this.posComercioRepository = posComercioRepository;
+        this.comercioRepository = comercioRepository;
+        this.comercioMapper = comercioMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.aciertos = meterRegistry.counter("banquito.comercio-info.instantanea.consultas", "resultado", "acierto");
+        this.fallos = meterRegistry.counter("banquito.comercio-info.instantanea.consultas", "resultado", "fallo");
+        Gauge.builder("banquito.comercio-info.instantanea.entradas", this,
+                        registro -> registro.estado == null ? 0 : registro.estado.instantanea().entradas())
+                .register(meterRegistry);
+        Gauge.builder("banquito.comercio-info.instantanea.bytes", this,
+                        registro -> registro.estado == null ? 0 : registro.estado.instantanea().bytesEstimados())
+                .register(meterRegistry);
+        Gauge.builder("banquito.comercio-info.instantanea.modificados", this,
+                        registro -> registro.estado == null ? 0
+                                : registro.estado.modificados().pos().size() + registro.estado.modificados().comercios().size())
+                .register(meterRegistry);
+    }
+
+    public ComercioInfoDTO buscar(String codigoPos) {
+        Estado actual = this.estado;
+        if (actual == null) {
+            return null;
+        }
+        ComercioInfoDTO info = actual.modificados().pos().contains(codigoPos)
+                ? null
+                : actual.instantanea().buscar(codigoPos);
+        if (info == null || actual.modificados().comercios().contains(info.getCodigo_comercio())) {
+            this.fallos.increment();
+            return null;
+        }
+        this.aciertos.increment();
+        return info;
+    }
+
+    public void marcarPos(String codigoPos) {
+        if (this.habilitado) {
+            marcar(codigoPos, Marcas::pos);
+            Transacciones.alConfirmar(() -> marcar(codigoPos, Marcas::pos));
+        }
+    }
+
+    public void marcarComercio(String codigoComercio) {
+        if (this.habilitado) {
+            marcar(codigoComercio, Marcas::comercios);
+            Transacciones.alConfirmar(() -> marcar(codigoComercio, Marcas::comercios));
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${banquito.comercio-info.instantanea.intervalo-reconstruccion-ms:300000}")
+    public void reconstruir() {
+        if (!this.habilitado) {
+            return;
+        }
+        this.bloqueoReconstruccion.lock();
+        try {
+            reconstruirInstantanea();
+        } finally {
+            this.bloqueoReconstruccion.unlock();
+        }
+    }
+
+    private void reconstruirInstantanea() {
+        long inicio = System.nanoTime();
+        Marcas pendientes = Marcas.vacias();
+        this.modificadosDuranteReconstruccion = pendientes;
+        InstantaneaPosActivos nueva;
+        try {
+            nueva = this.transactionTemplate.execute(status -> cargar());
+        } catch (RuntimeException e) {
+            this.modificadosDuranteReconstruccion = null;
+            log.error("Error al reconstruir la instantánea de POS activos: {}", e.getMessage());
+            return;
+        }
+
+        this.bloqueo.writeLock().lock();
+        try {
+            this.estado = new Estado(nueva, pendientes);
+            this.modificadosDuranteReconstruccion = null;
+        } finally {
+            this.bloqueo.writeLock().unlock();
+        }
+        log.info("Instantánea de POS activos reconstruida: {} POS, {} comercios, ~{} bytes en {} ms",
+                nueva.entradas(), nueva.comercios(), nueva.bytesEstimados(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private InstantaneaPosActivos cargar() {
+        InstantaneaPosActivos.Constructor constructor = new InstantaneaPosActivos.Constructor();
+        try (var comercios = this.comercioRepository.streamInfoByEstado("ACT")) {
+            comercios.forEach(comercio -> constructor.agregarComercio(this.comercioMapper.toInfoDTO(comercio)));
+        }
+        try (var posComercios = this.posComercioRepository.streamActivosByEstadoAndComercioEstado("ACT", "ACT")) {
+            posComercios.forEach(pos -> constructor.agregarPos(pos.getCodigoPos(), pos.getCodigoComercio()));
+        }
+        return constructor.construir();
+    }
+
+    private void marcar(String codigo, Function<Marcas, Set<String>> conjunto) {
+        this.bloqueo.readLock().lock();
+        try {
+            Estado actual = this.estado;
+            if (actual != null) {
+                conjunto.apply(actual.modificados()).add(codigo);
+            }
+            Marcas pendientes = this.modificadosDuranteReconstruccion;
+            if (pendientes != null) {
+                conjunto.apply(pendientes).add(codigo);
+            }
+        } finally {
+            this.bloqueo.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+
+public record ResultadoBusquedaComercio(String clave, Comercio comercio) {
+}
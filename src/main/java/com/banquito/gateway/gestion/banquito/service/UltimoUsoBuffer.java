@@ -0,0 +1,133 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.exception.UltimoUsoSaturadoException;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class UltimoUsoBuffer {
+
+    private final PosComercioRepository posComercioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maximoPendientes;
+    private final int limitePendientes;
+    private final long segundosReintento;
+    private final ConcurrentHashMap<String, LocalDateTime> pendientes = new ConcurrentHashMap<>();
+    private final ReentrantLock bloqueoFlush = new ReentrantLock();
+    private final AtomicBoolean flushSolicitado = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("ultimo-uso-flush").daemon().factory());
+    private final Counter registrados;
+    private final Counter escritos;
+    private final Counter flushForzados;
+    private final Counter descartados;
+
+    public UltimoUsoBuffer(
+            PosComercioRepository posComercioRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${banquito.pos.ultimo-uso.maximo-pendientes:50000}") int maximoPendientes,
+            @Value("${banquito.pos.ultimo-uso.limite-pendientes:100000}") int limitePendientes,
+            @Value("${banquito.pos.ultimo-uso.intervalo-flush-ms:5000}") long intervaloFlushMs,
+            MeterRegistry meterRegistry) {
+        this.posComercioRepository = posComercioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maximoPendientes = maximoPendientes;
+        this.limitePendientes = Math.max(limitePendientes, maximoPendientes);
+        this.segundosReintento = Math.max(1, (intervaloFlushMs + 999) / 1000);
+        this.registrados = meterRegistry.counter("banquito.pos.ultimouso.registrados");
+        this.escritos = meterRegistry.counter("banquito.pos.ultimouso.escritos");
+        this.flushForzados = meterRegistry.counter("banquito.pos.ultimouso.flush.forzados");
+        this.descartados = meterRegistry.counter("banquito.pos.ultimouso.descartados");
+        Gauge.builder("banquito.pos.ultimouso.pendientes", this.pendientes, Map::size).register(meterRegistry);
+    }
+
+    public void registrar(String codigoPos, LocalDateTime fecha) {
+        if (!this.pendientes.containsKey(codigoPos)) {
+            int tamanio = this.pendientes.size();
+            if (tamanio >= this.maximoPendientes) {
+                solicitarFlush();
+            }
+            if (tamanio >= this.limitePendientes) {
+                this.descartados.increment();
+                throw new UltimoUsoSaturadoException(this.segundosReintento);
+            }
+        }
+        this.pendientes.merge(codigoPos, fecha, (actual, nueva) -> nueva.isAfter(actual) ? nueva : actual);
+        this.registrados.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.pos.ultimo-uso.intervalo-flush-ms:5000}")
+    public void flushProgramado() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushAlApagar() {
+        this.flusher.shutdown();
+        log.info("Escribiendo {} registros de último uso pendientes antes del apagado", this.pendientes.size());
+        flush();
+    }
+
+    private void solicitarFlush() {
+        if (!this.flushSolicitado.compareAndSet(false, true)) {
+            return;
+        }
+        this.flushForzados.increment();
+        try {
+            this.flusher.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    this.flushSolicitado.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.flushSolicitado.set(false);
+        }
+    }
+
+    public void flush() {
+        this.bloqueoFlush.lock();
+        try {
+            if (this.pendientes.isEmpty()) {
+                return;
+            }
+            Map<String, LocalDateTime> lote = new HashMap<>(this.pendientes);
+            lote.forEach(this.pendientes::remove);
+            try {
+                Integer actualizados = this.transactionTemplate.execute(
+                        status -> this.posComercioRepository.actualizarUltimoUso(lote));
+                this.escritos.increment(lote.size());
+                log.debug("Último uso escrito para {} POS ({} filas actualizadas)", lote.size(), actualizados);
+            } catch (RuntimeException e) {
+                log.error("Error al escribir el último uso de {} POS, se reintentará: {}", lote.size(), e.getMessage());
+                lote.forEach((codigoPos, fecha) -> this.pendientes.merge(codigoPos, fecha,
+                        (actual, anterior) -> actual.isAfter(anterior) ? actual : anterior));
+            }
+        } finally {
+            this.bloqueoFlush.unlock();
+        }
+    }
+}
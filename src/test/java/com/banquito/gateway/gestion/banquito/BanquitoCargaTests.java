@@ -0,0 +1,217 @@
+package com.banquito.gateway.gestion.banquito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import lombok.extern.slf4j.Slf4j;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.service.ComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioLoteService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+@Slf4j
+@Tag("carga")
+@ActiveProfiles({"h2", "carga"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BanquitoCargaTests {
+
+    private static final int TAMANIO_LOTE_SEMILLA = 5000;
+    private static final int MAX_POS_POR_COMERCIO = 10;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @Value("${banquito.carga.comercios:500}")
+    private int comercios;
+
+    @Value("${banquito.carga.pos-por-comercio:4}")
+    private int posPorComercio;
+
+    @Value("${banquito.carga.concurrencia:32}")
+    private int concurrencia;
+
+    @Value("${banquito.carga.solicitudes:5000}")
+    private int solicitudes;
+
+    @Value("${banquito.carga.calentamiento:500}")
+    private int calentamiento;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final AtomicInteger secuenciaPos = new AtomicInteger();
+
+    @BeforeAll
+    void sembrarDatos() {
+        long inicio = System.nanoTime();
+        List<ComercioDTO> loteComercios = new ArrayList<>(TAMANIO_LOTE_SEMILLA);
+        for (int i = 0; i < this.comercios; i++) {
+            loteComercios.add(DatosPrueba.comercio(codigoComercio(i)));
+            if (loteComercios.size() == TAMANIO_LOTE_SEMILLA) {
+                this.comercioLoteService.crear(loteComercios);
+                loteComercios.clear();
+            }
+        }
+        if (!loteComercios.isEmpty()) {
+            this.comercioLoteService.crear(loteComercios);
+        }
+
+        List<PosComercioDTO> lotePos = new ArrayList<>(TAMANIO_LOTE_SEMILLA);
+        for (int i = 0; i < this.comercios * this.posPorComercio; i++) {
+            lotePos.add(DatosPrueba.pos(codigoPosSemilla(i), codigoComercio(i / this.posPorComercio)));
+            if (lotePos.size() == TAMANIO_LOTE_SEMILLA) {
+                this.posComercioLoteService.asignar(lotePos);
+                lotePos.clear();
+            }
+        }
+        if (!lotePos.isEmpty()) {
+            this.posComercioLoteService.asignar(lotePos);
+        }
+        log.warn("Datos de carga sembrados: {} comercios, {} POS en {} ms", this.comercios,
+                this.comercios * this.posPorComercio, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    @Test
+    void comercioInfoPorPos() {
+        ejecutar("comercio-info", this.solicitudes, i -> get("/v1/pos-comercios/" + posAleatorio() + "/comercio-info"));
+    }
+
+    @Test
+    void ultimoUsoPos() {
+        ejecutar("ultimo-uso", this.solicitudes, i -> HttpRequest.newBuilder(uri("/v1/pos-comercios/" + posAleatorio() + "/ultimo-uso"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    @Test
+    void listadoPaginado() {
+        int paginas = Math.max(1, this.comercios * this.posPorComercio / 20);
+        ejecutar("listado-paginado", this.solicitudes, i -> get("/v1/pos-comercios?size=20&page="
+                + ThreadLocalRandom.current().nextInt(paginas)));
+    }
+
+    @Test
+    void creacionPos() {
+        int capacidad = this.comercios * (MAX_POS_POR_COMERCIO - this.posPorComercio);
+        int total = Math.min(this.solicitudes, capacidad - this.calentamiento);
+        ejecutar("creacion-pos", total, i -> {
+            int secuencia = this.secuenciaPos.getAndIncrement();
+            String cuerpo = "{\"codigoPos\":\"N" + String.format("%07d", secuencia)
+                    + "\",\"modelo\":\"VX520\",\"codigoComercio\":\"" + codigoComercio(secuencia % this.comercios)
+                    + "\",\"direccionMac\":\"" + DatosPrueba.direccionMac() + "\",\"estado\":\"ACT\"}";
+            return HttpRequest.newBuilder(uri("/v1/pos-comercios"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build();
+        });
+    }
+
+    private void ejecutar(String escenario, int total, IntFunction<HttpRequest> solicitud) {
+        correr(this.calentamiento, solicitud, new long[this.calentamiento]);
+
+        long[] latencias = new long[total];
+        long inicio = System.nanoTime();
+        int errores = correr(total, solicitud, latencias);
+        long duracion = System.nanoTime() - inicio;
+
+        Arrays.sort(latencias);
+        log.warn("Escenario {} ({}): {} solicitudes, concurrencia {}, {} errores, {} req/s, p50 {} ms, p99 {} ms, máx {} ms",
+                escenario, this.hilosVirtuales ? "hilos virtuales" : "hilos de plataforma",
+                total, this.concurrencia, errores,
+                String.format("%.1f", total / (duracion / 1_000_000_000.0)),
+                String.format("%.2f", percentil(latencias, 0.50)),
+                String.format("%.2f", percentil(latencias, 0.99)),
+                String.format("%.2f", latencias[total - 1] / 1_000_000.0));
+        assertEquals(0, errores, "El escenario " + escenario + " tuvo respuestas con error");
+    }
+
+    private int correr(int total, IntFunction<HttpRequest> solicitud, long[] latencias) {
+        AtomicInteger siguiente = new AtomicInteger();
+        AtomicInteger errores = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(this.concurrencia);
+        for (int hilo = 0; hilo < this.concurrencia; hilo++) {
+            ejecutor.execute(() -> {
+                int i;
+                while ((i = siguiente.getAndIncrement()) < total) {
+                    HttpRequest request = solicitud.apply(i);
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errores.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errores.incrementAndGet();
+                    }
+                    latencias[i] = System.nanoTime() - inicio;
+                }
+            });
+        }
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(30, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return errores.get();
+    }
+
+    private static double percentil(long[] latenciasOrdenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * latenciasOrdenadas.length) - 1;
+        return latenciasOrdenadas[Math.max(0, indice)] / 1_000_000.0;
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(uri(ruta)).GET().build();
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + this.puerto + ruta);
+    }
+
+    private String posAleatorio() {
+        return codigoPosSemilla(ThreadLocalRandom.current().nextInt(this.comercios * this.posPorComercio));
+    }
+
+    private static String codigoComercio(int i) {
+        return String.format("C%07d", i);
+    }
+
+    private static String codigoPosSemilla(int i) {
+        return String.format("P%07d", i);
+    }
+}
@@ -0,0 +1,45 @@
+package com.banquito.gateway.gestion.banquito;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class DatosPrueba {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    private DatosPrueba() {
+    }
+
+    public static ComercioDTO comercio(String codigoComercio) {
+        int secuencia = SECUENCIA.incrementAndGet();
+        ComercioDTO dto = new ComercioDTO();
+        dto.setCodigoComercio(codigoComercio);
+        dto.setCodigoInterno("INT" + secuencia % 10_000_000);
+        dto.setRuc(String.format("19%011d", secuencia));
+        dto.setRazonSocial("Empresa " + codigoComercio + " S.A.");
+        dto.setNombreComercial("Tienda " + codigoComercio);
+        dto.setCodigoComision(1);
+        dto.setEstado("ACT");
+        dto.setSwiftBanco("BOFAUS3N");
+        dto.setCuentaIban(String.format("ES91%020d", secuencia));
+        return dto;
+    }
+
+    public static PosComercioDTO pos(String codigoPos, String codigoComercio) {
+        PosComercioDTO dto = new PosComercioDTO();
+        dto.setCodigoPos(codigoPos);
+        dto.setModelo("VX520");
+        dto.setCodigoComercio(codigoComercio);
+        dto.setDireccionMac(direccionMac());
+        dto.setEstado("ACT");
+        return dto;
+    }
+
+    public static String direccionMac() {
+        int secuencia = SECUENCIA.incrementAndGet();
+        return String.format("02:00:%02X:%02X:%02X:%02X", (secuencia >>> 24) & 0xFF, (secuencia >>> 16) & 0xFF,
+                (secuencia >>> 8) & 0xFF, secuencia & 0xFF);
+    }
+}
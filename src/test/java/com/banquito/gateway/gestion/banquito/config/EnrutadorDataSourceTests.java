@@ -0,0 +1,97 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+class EnrutadorDataSourceTests {
+
+    private DataSource primaria;
+    private DataSource replica;
+
+    @BeforeEach
+    void crearBasesDeDatos() {
+        this.primaria = baseDeDatos("primaria");
+        this.replica = baseDeDatos("replica");
+    }
+
+    @Test
+    void lecturasVanALaReplicaYEscriturasALaPrimaria() {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(this.primaria, this.replica, "", 5);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(enrutador));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        assertEquals("replica", lectura(transactionManager, jdbcTemplate));
+        assertEquals("primaria", escritura(transactionManager, jdbcTemplate));
+        assertEquals("primaria", jdbcTemplate.queryForObject("SELECT NOMBRE FROM ORIGEN", String.class));
+    }
+
+    @Test
+    void lecturasMarcadasComoPrimariasNoVanALaReplica() {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(this.primaria, this.replica, "", 5);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(enrutador));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        assertEquals("primaria", EnrutadorDataSource.enPrimaria(() -> lectura(transactionManager, jdbcTemplate)));
+        assertFalse(EnrutadorDataSource.isLecturaPrimaria());
+        assertEquals("replica", lectura(transactionManager, jdbcTemplate));
+    }
+
+    @Test
+    void lecturasVuelvenALaPrimariaSiLaReplicaTieneRetraso() {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(this.primaria, this.replica, "SELECT 30", 5);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(enrutador));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        enrutador.verificarReplica();
+
+        assertFalse(enrutador.isReplicaDisponible());
+        assertEquals("primaria", lectura(transactionManager, jdbcTemplate));
+    }
+
+    @Test
+    void lecturasVuelvenALaPrimariaSiLaReplicaNoResponde() {
+        DataSource caida = new DriverManagerDataSource("jdbc:h2:mem:caida;IFEXISTS=TRUE", "sa", "");
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(this.primaria, caida, "", 5);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(enrutador));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+
+        enrutador.verificarReplica();
+
+        assertFalse(enrutador.isReplicaDisponible());
+        assertEquals("primaria", lectura(transactionManager, jdbcTemplate));
+    }
+
+    private static String lectura(DataSourceTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject("SELECT NOMBRE FROM ORIGEN", String.class));
+    }
+
+    private static String escritura(DataSourceTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.update("UPDATE ORIGEN SET LECTURAS = LECTURAS + 1");
+            return jdbcTemplate.queryForObject("SELECT NOMBRE FROM ORIGEN", String.class);
+        });
+    }
+
+    private static DataSource baseDeDatos(String nombre) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS ORIGEN");
+        jdbcTemplate.execute("CREATE TABLE ORIGEN (NOMBRE VARCHAR(20), LECTURAS INT)");
+        jdbcTemplate.update("INSERT INTO ORIGEN VALUES (?, 0)", nombre);
+        return dataSource;
+    }
+}
@@ -0,0 +1,112 @@
+package com.banquito.gateway.gestion.banquito.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.service.ComercioInfoService;
+import com.banquito.gateway.gestion.banquito.service.ComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.ComercioService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioService;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primariaretrasada;MODE=MariaDB;DATABASE_TO_LOWER=FALSE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.minimum-idle=2",
+    "banquito.datasource.replica.url=" + ReplicaRetrasadaTests.URL_REPLICA,
+    "banquito.datasource.replica.maximum-pool-size=2",
+    "banquito.datasource.replica.intervalo-verificacion-ms=3600000",
+    "banquito.invalidacion.intervalo-ms=3600000"
+})
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRetrasadaTests {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replicaretrasada;MODE=MariaDB;DATABASE_TO_LOWER=FALSE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    @Qualifier("primariaDataSource")
+    private DataSource primaria;
+
+    @Autowired
+    private ComercioService comercioService;
+
+    @Autowired
+    private PosComercioService posComercioService;
+
+    @Autowired
+    private ComercioInfoService comercioInfoService;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.comercioLoteService.crear(List.of(DatosPrueba.comercio("RRT1"), DatosPrueba.comercio("RRT2"),
+                DatosPrueba.comercio("RRT3"), DatosPrueba.comercio("RRT4")));
+        this.posComercioLoteService.asignar(List.of(DatosPrueba.pos("PRRT1", "RRT1"), DatosPrueba.pos("PRRT2", "RRT2"),
+                DatosPrueba.pos("PRRT3", "RRT3")));
+        replicar();
+    }
+
+    @Test
+    void laInformacionDelComercioNoSeRecargaDesdeLaReplica() {
+        assertEquals("ACTIVO", this.comercioInfoService.findByPos("PRRT1").getEstado());
+        assertEquals("ACTIVO", this.comercioInfoService.findByPosLote(List.of("PRRT2")).get(0).getComercio().getEstado());
+
+        this.comercioService.suspender("RRT1");
+        this.comercioService.suspender("RRT2");
+
+        assertEquals("INACTIVO", this.comercioInfoService.findByPos("PRRT1").getEstado());
+        assertEquals("INACTIVO",
+                this.comercioInfoService.findByPosLote(List.of("PRRT2")).get(0).getComercio().getEstado());
+    }
+
+    @Test
+    void lasVersionesSeConsultanEnLaPrimaria() {
+        Long versionComercio = this.comercioService.findVersion("RRT3");
+        Long versionPos = this.posComercioService.findVersion("PRRT3").getVersion();
+
+        this.comercioService.suspender("RRT3");
+        this.posComercioService.actualizarEstado("PRRT3", "INA");
+
+        assertEquals(versionComercio + 1, this.comercioService.findVersion("RRT3"));
+        assertEquals(versionPos + 1, this.posComercioService.findVersion("PRRT3").getVersion());
+    }
+
+    @Test
+    void lasLecturasDeLaReplicaNoLlenanLaCacheDeSegundoNivel() {
+        this.comercioService.suspender("RRT4");
+
+        assertTrue(this.comercioService.findByEstado("ACT").stream()
+                .map(Comercio::getCodigoComercio)
+                .anyMatch("RRT4"::equals));
+        assertEquals("SUS", this.comercioService.findById("RRT4").getEstado());
+    }
+
+    private void replicar() {
+        JdbcTemplate origen = new JdbcTemplate(this.primaria);
+        JdbcTemplate destino = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+        destino.execute("DROP ALL OBJECTS");
+        for (String sentencia : origen.queryForList("SCRIPT", String.class)) {
+            destino.execute(sentencia);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.banquito.gateway.gestion.banquito.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.repository.EventoCambioRepository;
+import com.banquito.gateway.gestion.banquito.service.ComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioLoteService;
+
+import java.util.List;
+
+@SpringBootTest(properties = "banquito.eventos.intervalo-ms=100")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventoCambioControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    private long inicio;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.inicio = this.eventoCambioRepository.findFirstByOrderByIdDesc().map(evento -> evento.getId()).orElse(0L);
+
+        this.comercioLoteService.crear(List.of(DatosPrueba.comercio("EVT1")));
+        this.posComercioLoteService.asignar(List.of(DatosPrueba.pos("PEVT1", "EVT1")));
+    }
+
+    @Test
+    void lecturaSinEsperaRetornaLosEventosRegistrados() throws Exception {
+        MvcResult resultado = this.mockMvc.perform(get("/v1/eventos")
+                        .param("desde", String.valueOf(this.inicio))
+                        .param("limite", "2")
+                        .param("espera", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos.length()").value(2))
+                .andExpect(jsonPath("$.eventos[0].tipoEntidad").value("COM"))
+                .andExpect(jsonPath("$.eventos[0].codigo").value("EVT1"))
+                .andExpect(jsonPath("$.eventos[0].tipoCambio").value("CREACION"))
+                .andExpect(jsonPath("$.eventos[1].tipoEntidad").value("POS"))
+                .andExpect(jsonPath("$.eventos[1].codigo").value("PEVT1"))
+                .andExpect(jsonPath("$.siguienteDesde").value(this.inicio + 2));
+    }
+
+    @Test
+    void lecturaConEsperaRecibeElCambioPosterior() throws Exception {
+        MvcResult resultado = this.mockMvc.perform(get("/v1/eventos")
+                        .param("desde", String.valueOf(this.inicio + 2))
+                        .param("espera", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(patch("/v1/pos-comercios/PEVT1/estado/INA"))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos.length()").value(1))
+                .andExpect(jsonPath("$.eventos[0].codigo").value("PEVT1"))
+                .andExpect(jsonPath("$.eventos[0].tipoCambio").value("ESTADO"))
+                .andExpect(jsonPath("$.eventos[0].estado").value("INA"))
+                .andExpect(jsonPath("$.siguienteDesde").value(this.inicio + 3));
+    }
+}
@@ -0,0 +1,205 @@
+package com.banquito.gateway.gestion.banquito.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import jakarta.persistence.EntityManagerFactory;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.service.ComercioLoteService;
+import com.banquito.gateway.gestion.banquito.service.PosComercioLoteService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "banquito.invalidacion.intervalo-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SentenciasSqlPorEndpointTests {
+
+    private static final int COMERCIOS = 5;
+    private static final int POS_POR_COMERCIO = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    private Statistics estadisticas;
+    private String rucComercio4;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.estadisticas = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<ComercioDTO> comercios = new ArrayList<>();
+        List<PosComercioDTO> posComercios = new ArrayList<>();
+        for (int i = 0; i < COMERCIOS; i++) {
+            comercios.add(DatosPrueba.comercio("COM" + i));
+            for (int j = 0; j < POS_POR_COMERCIO; j++) {
+                posComercios.add(DatosPrueba.pos("POS" + i + j, "COM" + i));
+            }
+        }
+        this.comercioLoteService.crear(comercios);
+        this.rucComercio4 = comercios.get(4).getRuc();
+        this.posComercioLoteService.asignar(posComercios);
+    }
+
+    @Test
+    void listadoPaginadoDePosNoConsultaComercios() throws Exception {
+        assertEquals(2, sentencias(get("/v1/pos-comercios").param("size", "20")));
+    }
+
+    @Test
+    void listadoPorCursorDePosNoConsultaComercios() throws Exception {
+        assertEquals(1, sentencias(get("/v1/pos-comercios/cursor").param("pageSize", "20")));
+    }
+
+    @Test
+    void busquedaDePosPorModeloNoConsultaComercios() throws Exception {
+        assertEquals(1, sentencias(get("/v1/pos-comercios/modelo/VX520")));
+    }
+
+    @Test
+    void listadoDePosPorComercio() throws Exception {
+        assertEquals(2, sentencias(get("/v1/pos-comercios/comercio/COM1").param("size", "2")));
+    }
+
+    @Test
+    void consultaDePosPorCodigo() throws Exception {
+        assertEquals(1, sentencias(get("/v1/pos-comercios/POS10")));
+    }
+
+    @Test
+    void comercioInfoUsaUnaSolaConsultaYLuegoCache() throws Exception {
+        assertEquals(1, sentencias(get("/v1/pos-comercios/POS20/comercio-info")));
+        assertEquals(0, sentencias(get("/v1/pos-comercios/POS20/comercio-info")));
+    }
+
+    @Test
+    void comercioInfoEnLoteUsaUnaSolaConsultaYLuegoCache() throws Exception {
+        assertEquals(1, sentencias(comercioInfoLote("[\"POS30\",\"POS31\",\"POS40\",\"POS41\"]")));
+        assertEquals(0, sentencias(comercioInfoLote("[\"POS30\",\"POS31\",\"POS40\",\"POS41\"]")));
+    }
+
+    @Test
+    void comercioInfoEnLoteMarcaLosPosInexistentes() throws Exception {
+        this.mockMvc.perform(comercioInfoLote("[\"POS32\",\"NOEXISTE\",\"POS32\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].encontrado").value(true))
+                .andExpect(jsonPath("$[0].comercio.codigo_comercio").value("COM3"))
+                .andExpect(jsonPath("$[1].codigoPos").value("NOEXISTE"))
+                .andExpect(jsonPath("$[1].encontrado").value(false));
+    }
+
+    @Test
+    void comercioInfoEnLoteRechazaListasVaciasOConCodigosInvalidos() throws Exception {
+        for (String cuerpo : List.of("[]", "[\"POS30\",null]", "[\"POS30\",\"\"]", "[\"  \"]")) {
+            this.estadisticas.clear();
+            this.mockMvc.perform(comercioInfoLote(cuerpo)).andExpect(status().isBadRequest());
+            assertEquals(0, this.estadisticas.getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    void busquedaDeComerciosPorNombre() throws Exception {
+        assertEquals(1, sentencias(get("/v1/comercios/nombre/tienda")));
+    }
+
+    @Test
+    void consultaDeComercioPorCodigoUsaCacheDeSegundoNivel() throws Exception {
+        assertEquals(0, sentencias(get("/v1/comercios/COM2")));
+    }
+
+    @Test
+    void busquedaDeComercioPorRucUsaCacheDeConsultas() throws Exception {
+        sentencias(get("/v1/comercios/ruc/" + this.rucComercio4));
+        assertEquals(0, sentencias(get("/v1/comercios/ruc/" + this.rucComercio4)));
+    }
+
+    @Test
+    void consultaCondicionalDeComercioSinCambiosNoCargaLaEntidad() throws Exception {
+        String etag = etag(get("/v1/comercios/COM4"));
+        sentenciasSinCambios(get("/v1/comercios/COM4").header(HttpHeaders.IF_NONE_MATCH, etag), etag);
+        assertEquals(0, sentenciasSinCambios(get("/v1/comercios/COM4").header(HttpHeaders.IF_NONE_MATCH, etag), etag));
+    }
+
+    @Test
+    void consultaCondicionalDePosSinCambiosUsaSoloLaVersion() throws Exception {
+        String etag = etag(get("/v1/pos-comercios/POS11"));
+        assertEquals(1, sentenciasSinCambios(get("/v1/pos-comercios/POS11")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"otra\", " + etag), etag));
+    }
+
+    @Test
+    void consultaCondicionalConEtagObsoletoDevuelveElRecurso() throws Exception {
+        String etag = etag(get("/v1/pos-comercios/POS12"));
+        this.mockMvc.perform(get("/v1/pos-comercios/POS12").header(HttpHeaders.IF_NONE_MATCH, "\"obsoleto\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.codigoPos").value("POS12"));
+    }
+
+    @Test
+    void creacionDePos() throws Exception {
+        assertEquals(5, sentencias(post("/v1/pos-comercios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"codigoPos\":\"POSN1\",\"modelo\":\"VX520\",\"codigoComercio\":\"COM3\","
+                        + "\"direccionMac\":\"00:1B:44:12:00:01\",\"estado\":\"ACT\"}")));
+    }
+
+    private static RequestBuilder comercioInfoLote(String codigosPos) {
+        return post("/v1/pos-comercios/comercio-info/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(codigosPos);
+    }
+
+    private String etag(RequestBuilder solicitud) throws Exception {
+        return this.mockMvc.perform(solicitud)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private long sentenciasSinCambios(RequestBuilder solicitud, String etag) throws Exception {
+        this.estadisticas.clear();
+        this.mockMvc.perform(solicitud)
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        return this.estadisticas.getPrepareStatementCount();
+    }
+
+    private long sentencias(RequestBuilder solicitud) throws Exception {
+        this.estadisticas.clear();
+        this.mockMvc.perform(solicitud).andExpect(status().is2xxSuccessful());
+        return this.estadisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,85 @@
+package com.banquito.gateway.gestion.banquito.controller.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.exception.LoteInvalidoException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class NdjsonMapperTests {
+
+    private final NdjsonMapper ndjsonMapper = new NdjsonMapper(
+            new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL), 2);
+
+    @Test
+    void leeLosRegistrosHastaElMaximoPermitido() {
+        List<PosComercioDTO> registros = this.ndjsonMapper.fromNdjson(
+                entrada("{\"codigoPos\":\"P1\"}\n{\"codigoPos\":\"P2\"}\n"), PosComercioDTO.class);
+
+        assertEquals(List.of("P1", "P2"), registros.stream().map(PosComercioDTO::getCodigoPos).toList());
+    }
+
+    @Test
+    void rechazaElLoteAlSuperarElMaximoSinLeerElResto() {
+        LoteInvalidoException error = assertThrows(LoteInvalidoException.class, () -> this.ndjsonMapper.fromNdjson(
+                entrada("{\"codigoPos\":\"P1\"}\n{\"codigoPos\":\"P2\"}\n{\"codigoPos\":\"P3\"}\n{no es json"),
+                PosComercioDTO.class));
+
+        assertEquals("El lote no puede ser procesado: se permiten máximo 2 registros por lote", error.getMessage());
+    }
+
+    @Test
+    void leeUnArregloJsonHastaElMaximoPermitido() {
+        List<PosComercioDTO> registros = this.ndjsonMapper.fromJson(
+                entrada("[{\"codigoPos\":\"P1\"},{\"codigoPos\":\"P2\"}]"), PosComercioDTO.class);
+
+        assertEquals(List.of("P1", "P2"), registros.stream().map(PosComercioDTO::getCodigoPos).toList());
+    }
+
+    @Test
+    void rechazaElArregloJsonAlSuperarElMaximoSinLeerElResto() {
+        LoteInvalidoException error = assertThrows(LoteInvalidoException.class, () -> this.ndjsonMapper.fromJson(
+                entrada("[{\"codigoPos\":\"P1\"},{\"codigoPos\":\"P2\"},{\"codigoPos\":\"P3\"},{no es json"),
+                PosComercioDTO.class));
+
+        assertEquals("El lote no puede ser procesado: se permiten máximo 2 registros por lote", error.getMessage());
+        assertThrows(LoteInvalidoException.class, () -> this.ndjsonMapper.fromJson(
+                entrada("{\"codigoPos\":\"P1\"}"), PosComercioDTO.class));
+        assertThrows(LoteInvalidoException.class, () -> this.ndjsonMapper.fromJson(
+                entrada("[{\"codigoPos\":\"P1\"}"), PosComercioDTO.class));
+    }
+
+    @Test
+    void cadaRegistroTerminaEnSaltoDeLineaYSinRegistrosNoSeEscribeNada() throws Exception {
+        assertEquals("{\"codigoPos\":\"P1\"}\n{\"codigoPos\":\"P2\"}\n",
+                escribir(List.of(pos("P1"), pos("P2"))));
+        assertEquals("", escribir(List.of()));
+    }
+
+    private String escribir(List<PosComercioDTO> registros) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        this.ndjsonMapper.<PosComercioDTO>toNdjson(false, consumidor -> registros.forEach(consumidor))
+                .writeTo(salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static PosComercioDTO pos(String codigoPos) {
+        PosComercioDTO pos = new PosComercioDTO();
+        pos.setCodigoPos(codigoPos);
+        return pos;
+    }
+
+    private static InputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
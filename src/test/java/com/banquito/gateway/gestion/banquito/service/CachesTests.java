@@ -0,0 +1,27 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+class CachesTests {
+
+    @Test
+    void unErrorDelCargadorNoDejaLaClaveBloqueada() {
+        AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+        assertThrows(StackOverflowError.class, () -> Caches.obtener(cache, "POS1", clave -> {
+            throw new StackOverflowError();
+        }));
+
+        assertEquals("valor-POS1", assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> Caches.obtener(cache, "POS1", clave -> "valor-" + clave)));
+    }
+}
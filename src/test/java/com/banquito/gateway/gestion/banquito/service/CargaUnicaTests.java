@@ -0,0 +1,165 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banquito.gateway.gestion.banquito.exception.ComercioNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CargaUnicaTests {
+
+    private static final int HILOS = 16;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CargaUnica<String, String> cargaUnica;
+    private ExecutorService ejecutor;
+
+    @BeforeEach
+    void crear() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.cargaUnica = new CargaUnica<>("prueba", String::new, this.meterRegistry);
+        this.ejecutor = Executors.newFixedThreadPool(HILOS);
+    }
+
+    @AfterEach
+    void cerrar() {
+        this.ejecutor.shutdownNow();
+    }
+
+    @Test
+    void llamadasConcurrentesCompartenUnaSolaCarga() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger cargas = new AtomicInteger();
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(this.ejecutor.submit(() -> this.cargaUnica.obtener("COM1", clave -> {
+                cargas.incrementAndGet();
+                esperar(liberar);
+                return "valor-" + clave;
+            })));
+        }
+        while (contador("banquito.carga-unica.compartidas") < HILOS - 1) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            assertEquals("valor-COM1", resultado.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        assertEquals(1, contador("banquito.carga-unica.ejecutadas"));
+    }
+
+    @Test
+    void cadaLlamadaRecibeSuPropiaCopiaDelValorCompartido() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(this.ejecutor.submit(() -> this.cargaUnica.obtener("COM4", clave -> {
+                esperar(liberar);
+                return "valor-" + clave;
+            })));
+        }
+        while (contador("banquito.carga-unica.compartidas") < HILOS - 1) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        Map<String, Boolean> instancias = new IdentityHashMap<>();
+        for (Future<String> resultado : resultados) {
+            String valor = resultado.get(10, TimeUnit.SECONDS);
+            assertEquals("valor-COM4", valor);
+            instancias.put(valor, Boolean.TRUE);
+        }
+        assertEquals(HILOS, instancias.size());
+    }
+
+    @Test
+    void laExcepcionDeLaCargaSePropagaATodos() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(this.ejecutor.submit(() -> this.cargaUnica.obtener("COM2", clave -> {
+                esperar(liberar);
+                throw new ComercioNotFoundException(clave);
+            })));
+        }
+        while (contador("banquito.carga-unica.compartidas") < HILOS - 1) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        for (Future<String> resultado : resultados) {
+            Exception e = assertThrows(Exception.class, () -> resultado.get(10, TimeUnit.SECONDS));
+            assertEquals(ComercioNotFoundException.class, e.getCause().getClass());
+        }
+        assertEquals("valor-COM2", this.cargaUnica.obtener("COM2", clave -> "valor-" + clave));
+    }
+
+    @Test
+    void unErrorDeLaCargaLiberaALosQueEsperan() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Future<String> lider = this.ejecutor.submit(() -> this.cargaUnica.obtener("COM5", clave -> {
+            esperar(liberar);
+            throw new StackOverflowError();
+        }));
+        while (contador("banquito.carga-unica.ejecutadas") < 1) {
+            Thread.sleep(5);
+        }
+        Future<String> seguidor = this.ejecutor.submit(() -> this.cargaUnica.obtener("COM5", clave -> "otro"));
+        while (contador("banquito.carga-unica.compartidas") < 1) {
+            Thread.sleep(5);
+        }
+        liberar.countDown();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            assertEquals(StackOverflowError.class,
+                    assertThrows(Exception.class, lider::get).getCause().getClass());
+            assertEquals(StackOverflowError.class,
+                    assertThrows(Exception.class, seguidor::get).getCause().getClass());
+        });
+        assertEquals("valor-COM5", this.cargaUnica.obtener("COM5", clave -> "valor-" + clave));
+    }
+
+    @Test
+    void dentroDeUnaTransaccionNoSeComparteLaCarga() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            this.cargaUnica.obtener("COM3", clave -> "valor-" + clave);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(0, contador("banquito.carga-unica.ejecutadas"));
+    }
+
+    private double contador(String nombre) {
+        return this.meterRegistry.get(nombre).tag("nombre", "prueba").counter().count();
+    }
+
+    private static void esperar(CountDownLatch liberar) {
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResultadoLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.ResumenLoteDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.projection.ComercioClaveView;
+
+import java.sql.SQLException;
+import java.util.List;
+
+class ComercioLoteServiceTests {
+
+    private final ComercioRepository comercioRepository = mock(ComercioRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final ComercioLoteService comercioLoteService = new ComercioLoteService(mock(ComercioService.class),
+            this.comercioRepository, new ComercioMapper(), mock(IndiceBusquedaComercio.class),
+            mock(InvalidacionBus.class), mock(RegistroAuditoria.class),
+            Validation.buildDefaultValidatorFactory().getValidator(), this.entityManager,
+            mock(PlatformTransactionManager.class), 100, 500);
+
+    @Test
+    void unRucInsertadoConcurrentementeSeRechazaSinPerderElResto() {
+        ComercioDTO ganado = DatosPrueba.comercio("LOT1");
+        ComercioDTO libre = DatosPrueba.comercio("LOT2");
+        when(this.comercioRepository.findByRucInOrCodigoComercioIn(any(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(clave("OTRO", ganado.getRuc())));
+        doThrow(violacion("PUBLIC.UK_COMERCIO_RUC_INDEX_7")).doNothing().when(this.entityManager).flush();
+
+        ResumenLoteDTO resumen = this.comercioLoteService.crear(List.of(ganado, libre));
+
+        assertEquals(1, resumen.getCreados());
+        assertEquals(List.of("RECHAZADO", "CREADO"),
+                resumen.getResultados().stream().map(ResultadoLoteDTO::getResultado).toList());
+        assertEquals("Ya existe un comercio registrado con el RUC proporcionado",
+                resumen.getResultados().get(0).getMensaje());
+    }
+
+    @Test
+    void siElConflictoPersisteSeRechazanLosRegistrosPorLaRestriccionViolada() {
+        when(this.comercioRepository.findByRucInOrCodigoComercioIn(any(), any())).thenReturn(List.of());
+        doThrow(violacion("PUBLIC.UK_COMERCIO_RUC_INDEX_7")).when(this.entityManager).flush();
+
+        ResumenLoteDTO resumen = this.comercioLoteService.crear(
+                List.of(DatosPrueba.comercio("LOT3"), DatosPrueba.comercio("LOT4")));
+
+        assertEquals(0, resumen.getCreados());
+        assertEquals(2, resumen.getRechazados());
+        resumen.getResultados().forEach(resultado -> assertEquals(
+                "Ya existe un comercio registrado con el RUC proporcionado", resultado.getMensaje()));
+    }
+
+    private static ConstraintViolationException violacion(String restriccion) {
+        return new ConstraintViolationException("Violación de restricción", new SQLException(), restriccion);
+    }
+
+    private static ComercioClaveView clave(String codigoComercio, String ruc) {
+        ComercioClaveView clave = mock(ComercioClaveView.class);
+        when(clave.getCodigoComercio()).thenReturn(codigoComercio);
+        when(clave.getRuc()).thenReturn(ruc);
+        return clave;
+    }
+}
@@ -0,0 +1,256 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.dto.PosComercioDTO;
+import com.banquito.gateway.gestion.banquito.controller.mapper.ComercioMapper;
+import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.model.Comercio;
+import com.banquito.gateway.gestion.banquito.model.PosComercio;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+@SpringBootTest(properties = "banquito.invalidacion.intervalo-ms=3600000")
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConcurrenciaPosComercioTests {
+
+    private static final int HILOS = 20;
+
+    @Autowired
+    private ComercioService comercioService;
+
+    @Autowired
+    private PosComercioService posComercioService;
+
+    @Autowired
+    private PosComercioRepository posComercioRepository;
+
+    @Autowired
+    private ComercioRepository comercioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ComercioMapper comercioMapper;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @BeforeAll
+    void sembrarDatos() {
+        List<ComercioDTO> comercios = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            comercios.add(DatosPrueba.comercio("CC" + i));
+        }
+        this.comercioLoteService.crear(comercios);
+
+        List<PosComercioDTO> posComercios = new ArrayList<>();
+        posComercios.add(DatosPrueba.pos("PCCEST", "CC2"));
+        posComercios.add(DatosPrueba.pos("PCCVER", "CC2"));
+        for (int i = 0; i < PosComercioService.MAX_POS_POR_COMERCIO - 1; i++) {
+            posComercios.add(DatosPrueba.pos("PCCLL" + i, "CC4"));
+        }
+        for (int i = 0; i < PosComercioService.MAX_POS_POR_COMERCIO - 2; i++) {
+            posComercios.add(DatosPrueba.pos("PCCMV" + i, "CC5"));
+        }
+        this.posComercioLoteService.asignar(posComercios);
+    }
+
+    @Test
+    void creacionConcurrenteRespetaElLimiteDePosPorComercio() {
+        int exitos = concurrentemente(i -> {
+            PosComercio posComercio = new PosComercio("PCCNV" + i);
+            posComercio.setModelo("VX520");
+            posComercio.setDireccionMac(DatosPrueba.direccionMac());
+            posComercio.setComercio(new Comercio("CC1"));
+            this.posComercioService.create(posComercio);
+        });
+
+        assertEquals(PosComercioService.MAX_POS_POR_COMERCIO, exitos);
+        assertEquals(PosComercioService.MAX_POS_POR_COMERCIO,
+                this.posComercioRepository.countByComercioCodigoComercio("CC1"));
+    }
+
+    @Test
+    void transicionDeEstadoConcurrenteSeAplicaUnaSolaVez() {
+        int exitos = concurrentemente(i -> this.posComercioService.actualizarEstado("PCCEST", "INA"));
+
+        assertEquals(1, exitos);
+        assertEquals("INA", this.posComercioService.findById("PCCEST").getEstado());
+    }
+
+    @Test
+    void suspensionConcurrenteSeAplicaUnaSolaVez() {
+        int exitos = concurrentemente(i -> this.comercioService.suspender("CC3"));
+
+        assertEquals(1, exitos);
+        assertEquals("SUS", this.comercioService.findById("CC3").getEstado());
+    }
+
+    @Test
+    void creacionDesdeElControladorConcurrenteConLaSuspensionNoUsaUnEstadoObsoleto() throws Exception {
+        this.comercioService.findById("CC6");
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch suspender = new CountDownLatch(1);
+        Thread suspension = Thread.ofPlatform().start(() -> new TransactionTemplate(this.transactionManager)
+                .executeWithoutResult(status -> {
+                    this.comercioRepository.findBloqueadoByCodigoComercio("CC6");
+                    bloqueado.countDown();
+                    esperar(suspender);
+                    this.comercioRepository.suspender("CC6", LocalDateTime.now());
+                }));
+        assertTrue(bloqueado.await(5, TimeUnit.SECONDS));
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext).build();
+        String cuerpo = this.objectMapper.writeValueAsString(DatosPrueba.pos("PCCSUS", "CC6"));
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread creacion = Thread.ofPlatform().start(() -> {
+            try {
+                mockMvc.perform(post("/v1/pos-comercios").contentType(MediaType.APPLICATION_JSON).content(cuerpo));
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        Thread.sleep(500);
+        suspender.countDown();
+        suspension.join(10_000);
+        creacion.join(10_000);
+
+        assertNotNull(error.get());
+        assertInstanceOf(BusinessException.class, error.get().getCause());
+        assertFalse(this.posComercioRepository.existsById("PCCSUS"));
+    }
+
+    @Test
+    void asignacionConcurrenteRespetaElLimiteDePosPorComercio() {
+        concurrentemente(i -> this.posComercioService.asignarComercio(
+                "PCCMV" + (i % (PosComercioService.MAX_POS_POR_COMERCIO - 2)), "CC4"));
+
+        assertEquals(PosComercioService.MAX_POS_POR_COMERCIO,
+                this.posComercioRepository.countByComercioCodigoComercio("CC4"));
+        assertEquals(PosComercioService.MAX_POS_POR_COMERCIO - 3,
+                this.posComercioRepository.countByComercioCodigoComercio("CC5"));
+    }
+
+    @Test
+    void creacionConcurrenteConElMismoRucSeRechazaPorRuc() {
+        String ruc = DatosPrueba.comercio("CCRUC").getRuc();
+        Set<String> mensajes = ConcurrentHashMap.newKeySet();
+        int exitos = concurrentemente(i -> {
+            Comercio comercio = this.comercioMapper.toModel(DatosPrueba.comercio("CCRUC" + i));
+            comercio.setRuc(ruc);
+            try {
+                this.comercioService.create(comercio);
+            } catch (BusinessException e) {
+                mensajes.add(e.getMessage());
+                throw e;
+            }
+        });
+
+        assertEquals(1, exitos);
+        assertEquals(Set.of("Ya existe un comercio registrado con el RUC proporcionado"), mensajes);
+    }
+
+    @Test
+    void creacionConCodigoExistenteSeRechazaPorCodigo() {
+        Comercio comercio = this.comercioMapper.toModel(DatosPrueba.comercio("CC1"));
+
+        BusinessException error = assertThrows(BusinessException.class, () -> this.comercioService.create(comercio));
+        assertEquals("Ya existe un comercio con el código: CC1", error.getMessage());
+    }
+
+    @Test
+    void versionObsoletaEsRechazada() {
+        PosComercio obsoleto = this.posComercioService.findById("PCCVER");
+        this.posComercioService.actualizarEstado("PCCVER", "INA");
+
+        obsoleto.setModelo("VX680");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> this.posComercioRepository.save(obsoleto));
+        assertEquals("VX520", this.posComercioService.findById("PCCVER").getModelo());
+    }
+
+    private int concurrentemente(IntConsumer operacion) {
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger inesperados = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            int indice = hilo;
+            ejecutor.execute(() -> {
+                try {
+                    salida.await();
+                    operacion.accept(indice);
+                    exitos.incrementAndGet();
+                } catch (BusinessException e) {
+                    return;
+                } catch (Exception e) {
+                    inesperados.incrementAndGet();
+                }
+            });
+        }
+        salida.countDown();
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertEquals(0, inesperados.get(), "Hubo errores distintos a rechazos de negocio");
+        return exitos.get();
+    }
+
+    private static void esperar(CountDownLatch liberar) {
+        try {
+            liberar.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.exception.EventosDepuradosException;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.EventoCambioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(properties = {
+        "banquito.eventos.intervalo-ms=3600000",
+        "banquito.eventos.cola-suscriptor=2"
+})
+@ActiveProfiles("h2")
+class FlujoEventosServiceTests {
+
+    @Autowired
+    private FlujoEventosService flujoEventosService;
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void suscriptorLentoNoBloqueaElDespachoYSeCierraAlRetrasarse() throws Exception {
+        long inicio = this.eventoCambioRepository.findFirstByOrderByIdDesc().map(EventoCambio::getId).orElse(0L);
+        double retrasadasAntes = this.meterRegistry.counter("banquito.eventos.suscripciones.retrasadas").count();
+        CountDownLatch liberarLento = new CountDownLatch(1);
+        CountDownLatch lentoCerrado = new CountDownLatch(1);
+        AtomicInteger recibidosRapido = new AtomicInteger();
+
+        this.flujoEventosService.suscribir(inicio, 500, eventos -> {
+            try {
+                liberarLento.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }, lentoCerrado::countDown);
+        FlujoEventosService.Suscripcion rapida = this.flujoEventosService.suscribir(inicio, 500, eventos -> {
+            recibidosRapido.addAndGet(eventos.size());
+            return true;
+        }, () -> { });
+
+        try {
+            for (int i = 1; i <= 5; i++) {
+                this.comercioLoteService.crear(List.of(DatosPrueba.comercio("FLU" + i)));
+                assertTimeoutPreemptively(Duration.ofSeconds(2), this.flujoEventosService::despachar);
+            }
+
+            assertTrue(lentoCerrado.await(5, TimeUnit.SECONDS));
+            assertEquals(retrasadasAntes + 1,
+                    this.meterRegistry.counter("banquito.eventos.suscripciones.retrasadas").count());
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (recibidosRapido.get() < 5 && System.nanoTime() < limite) {
+                Thread.sleep(20);
+            }
+            assertEquals(5, recibidosRapido.get());
+        } finally {
+            liberarLento.countDown();
+            this.flujoEventosService.cancelar(rapida);
+        }
+    }
+
+    @Test
+    void elHuecoSeEsperaSegunElRelojDelLectorAunqueElEscritorEsteAtrasado() throws Exception {
+        EventoCambioRepository repositorio = mock(EventoCambioRepository.class);
+        LocalDateTime haceUnaHora = LocalDateTime.now().minusHours(1);
+        when(repositorio.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(List.of(evento(11, haceUnaHora), evento(13, haceUnaHora)));
+        FlujoEventosService servicio = new FlujoEventosService(repositorio, mock(PlatformTransactionManager.class),
+                Duration.ofMillis(200), 500, 2, 1, new SimpleMeterRegistry());
+
+        assertEquals(List.of(11L), servicio.leer(10, 10).stream().map(EventoCambio::getId).toList());
+        Thread.sleep(300);
+        assertEquals(List.of(11L, 13L), servicio.leer(10, 10).stream().map(EventoCambio::getId).toList());
+    }
+
+    @Test
+    void leerDesdeUnaPosicionYaDepuradaSeRechaza() {
+        EventoCambioRepository repositorio = mock(EventoCambioRepository.class);
+        when(repositorio.findFirstByOrderByIdAsc()).thenReturn(Optional.of(evento(100, LocalDateTime.now())));
+        FlujoEventosService servicio = new FlujoEventosService(repositorio, mock(PlatformTransactionManager.class),
+                Duration.ofSeconds(5), 500, 2, 1, new SimpleMeterRegistry());
+
+        assertThrows(EventosDepuradosException.class, () -> servicio.leer(50, 10));
+        assertEquals(List.of(), servicio.leer(99, 10));
+        assertEquals(List.of(), servicio.leer(0, 10));
+    }
+
+    private static EventoCambio evento(long id, LocalDateTime fecha) {
+        EventoCambio evento = new EventoCambio(EventoCambio.ENTIDAD_COMERCIO, "C" + id, InvalidacionBus.CAMBIO_ESTADO,
+                "ACT", "otro-nodo", fecha);
+        evento.setId(id);
+        return evento;
+    }
+}
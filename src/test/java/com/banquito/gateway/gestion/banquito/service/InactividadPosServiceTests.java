@@ -0,0 +1,140 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.exception.BusinessException;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@SpringBootTest(properties = "banquito.invalidacion.intervalo-ms=3600000")
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InactividadPosServiceTests {
+
+    private static final String TAREA = "inactividad-pos";
+
+    @Autowired
+    private InactividadPosService inactividadPosService;
+
+    @Autowired
+    private BloqueoTareas bloqueoTareas;
+
+    @Autowired
+    private PosComercioRepository posComercioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.comercioLoteService.crear(List.of(DatosPrueba.comercio("INAC1")));
+        this.posComercioLoteService.asignar(List.of(
+                DatosPrueba.pos("PINAC1", "INAC1"),
+                DatosPrueba.pos("PINAC2", "INAC1"),
+                DatosPrueba.pos("PINAC3", "INAC1"),
+                DatosPrueba.pos("PINAC4", "INAC1")));
+    }
+
+    @Test
+    void inactivaSoloLosCodigosQueSiguenCumpliendoLaCondicion() {
+        envejecer("PINAC1");
+        LocalDateTime limite = LocalDateTime.now().minusDays(90);
+
+        List<String> inactivados = new TransactionTemplate(this.transactionManager).execute(status ->
+                this.posComercioRepository.inactivarSinUsoDesde(List.of("PINAC1", "PINAC2"), limite));
+
+        assertEquals(List.of("PINAC1"), inactivados);
+        assertEquals("INA", estado("PINAC1"));
+        assertEquals("ACT", estado("PINAC2"));
+    }
+
+    @Test
+    void barridoPublicaEventosSoloDeLosPosInactivados() {
+        envejecer("PINAC3");
+
+        assertTrue(this.inactividadPosService.verificar() >= 1);
+
+        assertEquals("INA", estado("PINAC3"));
+        assertEquals("ACT", estado("PINAC4"));
+        assertEquals(1, eventosInactividad("PINAC3"));
+        assertEquals(0, eventosInactividad("PINAC4"));
+    }
+
+    @Test
+    void verificacionRechazadaMientrasOtroNodoTieneElBloqueo() {
+        bloquearEnOtroNodo(LocalDateTime.now().plusMinutes(10));
+        try {
+            assertThrows(BusinessException.class, this.inactividadPosService::verificar);
+        } finally {
+            bloquearEnOtroNodo(LocalDateTime.now().minusMinutes(1));
+        }
+    }
+
+    @Test
+    void bloqueoVencidoDeOtroNodoSePuedeTomar() {
+        bloquearEnOtroNodo(LocalDateTime.now().minusMinutes(1));
+
+        assertEquals(Optional.of("ok"), this.bloqueoTareas.ejecutar(TAREA, Duration.ofMinutes(5), () -> "ok"));
+    }
+
+    @Test
+    void bloqueoNoEsReentranteEntreEjecucionesSolapadas() {
+        Optional<Optional<String>> externa = this.bloqueoTareas.ejecutar("prueba-solapada", Duration.ofMinutes(5),
+                () -> this.bloqueoTareas.ejecutar("prueba-solapada", Duration.ofMinutes(5), () -> "interna"));
+
+        assertEquals(Optional.of(Optional.empty()), externa);
+        assertEquals(Optional.of("otra"),
+                this.bloqueoTareas.ejecutar("prueba-solapada", Duration.ofMinutes(5), () -> "otra"));
+    }
+
+    private void envejecer(String codigoPos) {
+        this.jdbcTemplate.update("UPDATE GTW_POS_COMERCIO SET ULTIMO_USO = ? WHERE CODIGO_POS = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(120)), codigoPos);
+    }
+
+    private String estado(String codigoPos) {
+        return this.jdbcTemplate.queryForObject(
+                "SELECT ESTADO FROM GTW_POS_COMERCIO WHERE CODIGO_POS = ?", String.class, codigoPos);
+    }
+
+    private int eventosInactividad(String codigoPos) {
+        return this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM GTW_EVENTO_CAMBIO WHERE CODIGO = ? AND TIPO_CAMBIO = ?",
+                Integer.class, codigoPos, InvalidacionBus.CAMBIO_INACTIVIDAD);
+    }
+
+    private void bloquearEnOtroNodo(LocalDateTime hasta) {
+        if (this.jdbcTemplate.update("UPDATE GTW_BLOQUEO_TAREA SET NODO = 'nodo-remoto', BLOQUEADO_HASTA = ?"
+                + " WHERE NOMBRE = ?", Timestamp.valueOf(hasta), TAREA) == 0) {
+            this.jdbcTemplate.update("INSERT INTO GTW_BLOQUEO_TAREA (NOMBRE, NODO, BLOQUEADO_HASTA) VALUES (?, ?, ?)",
+                    TAREA, "nodo-remoto", Timestamp.valueOf(hasta));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banquito.gateway.gestion.banquito.exception.CursorInvalidoException;
+import com.banquito.gateway.gestion.banquito.repository.ComercioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class IndiceBusquedaComercioTests {
+
+    private IndiceBusquedaComercio indice;
+
+    @BeforeEach
+    void crearIndice() {
+        this.indice = indice(10_000);
+    }
+
+    @Test
+    void buscaPorPrefijoSinDistinguirMayusculasNiTildes() {
+        assertEquals(List.of("COM1", "COM4"), codigos(this.indice.buscar("FERRETERIA", null, 10)));
+        assertEquals(List.of("COM3"), codigos(this.indice.buscar("opt", null, 10)));
+        assertEquals(List.of("COM3", "COM2"), codigos(this.indice.buscar("andin", null, 10)));
+    }
+
+    @Test
+    void todosLosTerminosDebenCoincidir() {
+        assertEquals(List.of("COM4"), codigos(this.indice.buscar("central ferre", null, 10)));
+        assertEquals(List.of(), codigos(this.indice.buscar("central optica", null, 10)));
+    }
+
+    @Test
+    void paginaSinRepetirComerciosConVariosTokensCoincidentes() {
+        List<String> encontrados = new ArrayList<>();
+        String despuesDe = null;
+        List<IndiceBusquedaComercio.Coincidencia> pagina;
+        do {
+            pagina = this.indice.buscar("fer", despuesDe, 1).coincidencias();
+            pagina.forEach(coincidencia -> encontrados.add(coincidencia.codigoComercio()));
+            despuesDe = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).clave();
+        } while (!pagina.isEmpty());
+
+        assertEquals(List.of("COM1", "COM4", "COM2"), encontrados);
+    }
+
+    @Test
+    void reindexarReemplazaLosTokensAnteriores() {
+        this.indice.indexar("COM3", "Panadería Los Andes", "Visión Andina S.A.");
+
+        assertEquals(List.of(), codigos(this.indice.buscar("optica", null, 10)));
+        assertEquals(List.of("COM3"), codigos(this.indice.buscar("pan", null, 10)));
+    }
+
+    @Test
+    void cursorFueraDelRangoDelTerminoEsRechazado() {
+        assertThrows(CursorInvalidoException.class, () -> this.indice.buscar("fer", "fer\uffff\uffff\u0001COM1", 10));
+    }
+
+    @Test
+    void limiteDeClavesEscaneadasCortaLaPaginaYPermiteReanudar() {
+        IndiceBusquedaComercio acotado = indice(2);
+        for (int i = 0; i < 6; i++) {
+            acotado.indexar("FER" + i, "Ferretería Norte", "Distribuidora Norte");
+            acotado.indexar("ZET" + i, "Zeta Sur", "Comercial Sur");
+        }
+        acotado.indexar("COM9", "Ferretería Zeta", "Zeta S.A.");
+
+        List<String> encontrados = new ArrayList<>();
+        int paginas = 0;
+        String despuesDe = null;
+        do {
+            IndiceBusquedaComercio.Resultado resultado = acotado.buscar("ferre zeta", despuesDe, 10);
+            resultado.coincidencias().forEach(coincidencia -> encontrados.add(coincidencia.codigoComercio()));
+            despuesDe = resultado.reanudarDesde();
+            paginas++;
+        } while (despuesDe != null);
+
+        assertEquals(List.of("COM9"), encontrados);
+        assertEquals(4, paginas);
+    }
+
+    private static IndiceBusquedaComercio indice(int maximoClavesPorPagina) {
+        IndiceBusquedaComercio indice = new IndiceBusquedaComercio(mock(ComercioRepository.class),
+                mock(PlatformTransactionManager.class), maximoClavesPorPagina, new SimpleMeterRegistry());
+        indice.indexar("COM1", "Ferretería El Martillo", "Ferreterías Unidas S.A.");
+        indice.indexar("COM2", "Farmacia Central", "Ferrocarril Andino Cía. Ltda.");
+        indice.indexar("COM3", "Óptica Los Andes", "Visión Andina S.A.");
+        indice.indexar("COM4", "Ferretería Central", "Construcciones Quito S.A.");
+        return indice;
+    }
+
+    private static List<String> codigos(IndiceBusquedaComercio.Resultado resultado) {
+        return resultado.coincidencias().stream().map(IndiceBusquedaComercio.Coincidencia::codigoComercio).toList();
+    }
+}
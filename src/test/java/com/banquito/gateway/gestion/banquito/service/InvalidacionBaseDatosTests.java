@@ -0,0 +1,115 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+import com.banquito.gateway.gestion.banquito.repository.EventoCambioRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest(properties = "banquito.invalidacion.intervalo-ms=3600000")
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvalidacionBaseDatosTests {
+
+    private static final String OTRO_NODO = "nodo-remoto";
+
+    @Autowired
+    private InvalidacionBaseDatos invalidacionBus;
+
+    @Autowired
+    private ComercioService comercioService;
+
+    @Autowired
+    private ComercioInfoService comercioInfoService;
+
+    @Autowired
+    private EstadoPosCache estadoPosCache;
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private IndiceBusquedaComercio indiceBusquedaComercio;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.comercioLoteService.crear(List.of(DatosPrueba.comercio("INV1")));
+        this.posComercioLoteService.asignar(List.of(DatosPrueba.pos("PINV1", "INV1")));
+
+        this.invalidacionBus.sondear();
+    }
+
+    @Test
+    void eventoDeOtroNodoInvalidaLasCachesLocales() {
+        assertEquals("ACT", this.comercioService.findById("INV1").getEstado());
+        assertEquals("ACTIVO", this.comercioInfoService.findByPos("PINV1").getEstado());
+        assertEquals("ACT", this.estadoPosCache.obtener("PINV1"));
+
+        cambiarEnOtroNodo("UPDATE GTW_COMERCIO SET ESTADO = 'SUS' WHERE CODIGO_COMERCIO = 'INV1'",
+                EventoCambio.ENTIDAD_COMERCIO, "INV1", InvalidacionBus.CAMBIO_SUSPENSION, "SUS");
+        cambiarEnOtroNodo("UPDATE GTW_POS_COMERCIO SET ESTADO = 'INA' WHERE CODIGO_POS = 'PINV1'",
+                EventoCambio.ENTIDAD_POS, "PINV1", InvalidacionBus.CAMBIO_ESTADO, "INA");
+
+        assertEquals("ACT", this.comercioService.findById("INV1").getEstado());
+        assertEquals("ACT", this.estadoPosCache.obtener("PINV1"));
+
+        this.invalidacionBus.sondear();
+
+        assertEquals("SUS", this.comercioService.findById("INV1").getEstado());
+        assertEquals("INACTIVO", this.comercioInfoService.findByPos("PINV1").getEstado());
+        assertEquals("INA", this.estadoPosCache.obtener("PINV1"));
+    }
+
+    @Test
+    void comercioCreadoEnOtroNodoSeIndexaParaLaBusqueda() {
+        assertEquals(List.of(), codigosEncontrados("ebanisteria remota"));
+
+        cambiarEnOtroNodo("INSERT INTO GTW_COMERCIO (CODIGO_COMERCIO, CODIGO_INTERNO, RUC, RAZON_SOCIAL, "
+                + "NOMBRE_COMERCIAL, FECHA_CREACION, COD_COMISION, ESTADO, SWIFT_BANCO, VERSION) VALUES ('INV2', "
+                + "'INTINV2', '1799999999001', 'Remota S.A.', 'Ebanistería Remota', CURRENT_TIMESTAMP, 1, 'ACT', "
+                + "'BOFAUS3N', 0)", EventoCambio.ENTIDAD_COMERCIO, "INV2", InvalidacionBus.CAMBIO_CREACION, "ACT");
+        this.invalidacionBus.sondear();
+
+        assertEquals(List.of("INV2"), codigosEncontrados("ebanisteria remota"));
+    }
+
+    private List<String> codigosEncontrados(String consulta) {
+        return this.indiceBusquedaComercio.buscar(consulta, null, 10).coincidencias().stream()
+                .map(IndiceBusquedaComercio.Coincidencia::codigoComercio)
+                .toList();
+    }
+
+    private void cambiarEnOtroNodo(String sql, String tipoEntidad, String codigo, String tipoCambio,
+            String estado) {
+        new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+            this.jdbcTemplate.update(sql);
+            this.eventoCambioRepository.registrar(List.of(
+                    new EventoCambio(tipoEntidad, codigo, tipoCambio, estado, OTRO_NODO, LocalDateTime.now())));
+        });
+    }
+}
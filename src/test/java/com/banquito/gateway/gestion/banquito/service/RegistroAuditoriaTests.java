@@ -0,0 +1,85 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banquito.gateway.gestion.banquito.model.EventoCambio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+class RegistroAuditoriaTests {
+
+    private static final int CAPACIDAD = 4;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<EventoAuditoria> escritos;
+
+    @BeforeEach
+    void crear() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.escritos = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    void conBufferLlenoSeDescartanLosEventosNuevos() {
+        RegistroAuditoria registro = registro(RegistroAuditoria.PoliticaDesborde.DESCARTAR_NUEVOS);
+        for (int i = 0; i < CAPACIDAD + 2; i++) {
+            registro.registrar(EventoCambio.ENTIDAD_POS, "POS" + i, InvalidacionBus.CAMBIO_ESTADO, "INA");
+        }
+
+        registro.escribirLote(new ArrayList<>());
+
+        assertEquals(List.of("POS0", "POS1", "POS2", "POS3"), codigosEscritos());
+        assertEquals(2, contador("descartado"));
+    }
+
+    @Test
+    void conBufferLlenoSeDescartanLosEventosAntiguos() {
+        RegistroAuditoria registro = registro(RegistroAuditoria.PoliticaDesborde.DESCARTAR_ANTIGUOS);
+        registro.registrar(EventoCambio.ENTIDAD_POS, List.of("POS0", "POS1", "POS2", "POS3", "POS4", "POS5"),
+                InvalidacionBus.CAMBIO_INACTIVIDAD, "INA");
+
+        registro.escribirLote(new ArrayList<>());
+
+        assertEquals(List.of("POS2", "POS3", "POS4", "POS5"), codigosEscritos());
+        assertEquals(2, contador("descartado"));
+    }
+
+    @Test
+    void elEscritorEnSegundoPlanVaciaElBufferAlDetenerse() throws Exception {
+        RegistroAuditoria registro = registro(RegistroAuditoria.PoliticaDesborde.ESPERAR);
+        registro.iniciar();
+        for (int i = 0; i < CAPACIDAD * 10; i++) {
+            registro.registrar(EventoCambio.ENTIDAD_COMERCIO, "COM" + i, InvalidacionBus.CAMBIO_CREACION, "ACT");
+        }
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (this.escritos.size() + contador("descartado") < CAPACIDAD * 10 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        registro.detener();
+
+        assertEquals(CAPACIDAD * 10, this.escritos.size() + contador("descartado"));
+        assertEquals(this.escritos.size(), contador("escrito"));
+    }
+
+    private RegistroAuditoria registro(RegistroAuditoria.PoliticaDesborde politica) {
+        return new RegistroAuditoria(CAPACIDAD, politica, Duration.ofMillis(50), CAPACIDAD, this.escritos::add,
+                this.meterRegistry);
+    }
+
+    private List<String> codigosEscritos() {
+        return this.escritos.stream().map(EventoAuditoria::codigo).toList();
+    }
+
+    private int contador(String resultado) {
+        return (int) this.meterRegistry.get("banquito.auditoria.eventos").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,119 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import jakarta.persistence.EntityManagerFactory;
+
+import com.banquito.gateway.gestion.banquito.DatosPrueba;
+import com.banquito.gateway.gestion.banquito.controller.dto.ComercioInfoDTO;
+
+import java.util.List;
+
+@SpringBootTest(properties = {
+    "banquito.comercio-info.instantanea.habilitada=true",
+    "banquito.comercio-info.instantanea.intervalo-reconstruccion-ms=3600000",
+    "banquito.invalidacion.intervalo-ms=3600000"
+})
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegistroPosActivosTests {
+
+    @Autowired
+    private RegistroPosActivos registroPosActivos;
+
+    @Autowired
+    private ComercioInfoService comercioInfoService;
+
+    @Autowired
+    private ComercioService comercioService;
+
+    @Autowired
+    private PosComercioService posComercioService;
+
+    @Autowired
+    private ComercioLoteService comercioLoteService;
+
+    @Autowired
+    private PosComercioLoteService posComercioLoteService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void sembrarDatos() {
+        this.comercioLoteService.crear(List.of(DatosPrueba.comercio("RPA1"), DatosPrueba.comercio("RPA2")));
+        this.posComercioLoteService.asignar(List.of(DatosPrueba.pos("RPA1A", "RPA1"), DatosPrueba.pos("RPA1B", "RPA1"),
+                DatosPrueba.pos("RPA2A", "RPA2"), DatosPrueba.pos("RPA2B", "RPA2")));
+        this.posComercioService.actualizarEstado("RPA2B", "INA");
+        this.registroPosActivos.reconstruir();
+    }
+
+    @Test
+    void posActivoSeRespondeSinConsultarLaBaseDeDatos() {
+        Statistics estadisticas = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estadisticas.clear();
+        ComercioInfoDTO info = this.comercioInfoService.findByPos("RPA1A");
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals("RPA1", info.getCodigo_comercio());
+        assertEquals("ACTIVO", info.getEstado());
+
+        estadisticas.clear();
+        assertEquals("RPA2", this.comercioInfoService.findByPos("RPA2B").getCodigo_comercio());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void losCambiosRetiranLasEntradasHastaLaSiguienteReconstruccion() {
+        assertNotNull(this.registroPosActivos.buscar("RPA1B"));
+        assertNotNull(this.registroPosActivos.buscar("RPA2A"));
+
+        this.posComercioService.actualizarEstado("RPA1B", "INA");
+        this.comercioService.suspender("RPA2");
+
+        assertNull(this.registroPosActivos.buscar("RPA1B"));
+        assertNull(this.registroPosActivos.buscar("RPA2A"));
+        assertEquals("INACTIVO", this.comercioInfoService.findByPos("RPA2A").getEstado());
+
+        this.registroPosActivos.reconstruir();
+
+        assertNull(this.registroPosActivos.buscar("RPA1B"));
+        assertNull(this.registroPosActivos.buscar("RPA2A"));
+        assertNotNull(this.registroPosActivos.buscar("RPA1A"));
+    }
+
+    @Test
+    void laInstantaneaDistingueCodigosYRechazaLosNoRepresentables() {
+        InstantaneaPosActivos.Constructor constructor = new InstantaneaPosActivos.Constructor();
+        ComercioInfoDTO info = new ComercioInfoDTO();
+        info.setCodigo_comercio("C1");
+        info.setSwift_banco("BOFAUS3N");
+        constructor.agregarComercio(info);
+        for (String codigoPos : List.of("b", "A", "a", "AB", "Z9", "0")) {
+            constructor.agregarPos(codigoPos, "C1");
+        }
+        assertEquals(false, constructor.agregarPos("POS-DEMASIADO-LARGO", "C1"));
+        assertEquals(false, constructor.agregarPos("Ñandú€", "C1"));
+        assertEquals(false, constructor.agregarPos("X1", "C2"));
+
+        InstantaneaPosActivos instantanea = constructor.construir();
+
+        assertEquals(6, instantanea.entradas());
+        for (String codigoPos : List.of("b", "A", "a", "AB", "Z9", "0")) {
+            assertEquals(info, instantanea.buscar(codigoPos));
+        }
+        assertNull(instantanea.buscar("B"));
+        assertNull(instantanea.buscar("ABC"));
+        assertNull(instantanea.buscar("POS-DEMASIADO-LARGO"));
+    }
+}
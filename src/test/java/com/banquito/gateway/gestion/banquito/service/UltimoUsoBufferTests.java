@@ -0,0 +1,75 @@
+package com.banquito.gateway.gestion.banquito.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.banquito.gateway.gestion.banquito.exception.UltimoUsoSaturadoException;
+import com.banquito.gateway.gestion.banquito.repository.PosComercioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class UltimoUsoBufferTests {
+
+    @Test
+    void conBufferLlenoNoSeEscribeEnElHiloDeLaPeticionYSeRechazanCodigosNuevos() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PosComercioRepository repositorio = mock(PosComercioRepository.class);
+        CountDownLatch escrituraIniciada = new CountDownLatch(1);
+        CountDownLatch liberarEscritura = new CountDownLatch(1);
+        List<Map<String, LocalDateTime>> escritos = new CopyOnWriteArrayList<>();
+        when(repositorio.actualizarUltimoUso(any())).thenAnswer(invocacion -> {
+            Map<String, LocalDateTime> lote = invocacion.getArgument(0);
+            escritos.add(new HashMap<>(lote));
+            escrituraIniciada.countDown();
+            liberarEscritura.await(10, TimeUnit.SECONDS);
+            return lote.size();
+        });
+        UltimoUsoBuffer buffer = new UltimoUsoBuffer(repositorio, mock(PlatformTransactionManager.class), 2, 3,
+                5000, meterRegistry);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        buffer.registrar("P0", ahora);
+        Thread escrituraLenta = Thread.ofPlatform().start(buffer::flush);
+        assertTrue(escrituraIniciada.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            buffer.registrar("P1", ahora);
+            buffer.registrar("P2", ahora);
+            buffer.registrar("P3", ahora);
+            assertEquals(5, assertThrows(UltimoUsoSaturadoException.class,
+                    () -> buffer.registrar("P4", ahora)).getSegundosReintento());
+            assertThrows(UltimoUsoSaturadoException.class, () -> buffer.registrar("P5", ahora));
+            buffer.registrar("P1", ahora.plusSeconds(30));
+        });
+
+        assertEquals(2, meterRegistry.counter("banquito.pos.ultimouso.descartados").count());
+        assertEquals(1, meterRegistry.counter("banquito.pos.ultimouso.flush.forzados").count());
+
+        liberarEscritura.countDown();
+        escrituraLenta.join(5000);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (escritos.size() < 2 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Map.of("P0", ahora), escritos.get(0));
+        assertEquals(Map.of("P1", ahora.plusSeconds(30), "P2", ahora, "P3", ahora), escritos.get(1));
+    }
+}